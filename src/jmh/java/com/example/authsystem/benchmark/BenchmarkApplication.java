@@ -0,0 +1,102 @@
+package com.example.authsystem.benchmark;
+
+import com.example.authsystem.AuthSystemApplication;
+import com.example.authsystem.entity.Menu;
+import com.example.authsystem.entity.Role;
+import com.example.authsystem.entity.User;
+import com.example.authsystem.repository.MenuRepository;
+import com.example.authsystem.repository.RoleRepository;
+import com.example.authsystem.repository.UserRepository;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Boots the application on an in-memory H2 database and seeds it with deterministic data, so that
+ * benchmarks exercise the real beans and queries.
+ */
+final class BenchmarkApplication {
+
+    static final String PASSWORD = "admin123";
+
+    private static final String[] SYLLABLES = {
+            "an", "bel", "cor", "dan", "el", "fin", "gar", "hal", "is", "jor",
+            "ka", "lin", "mar", "nor", "ol", "per", "quin", "ros", "sam", "tor"
+    };
+
+    private BenchmarkApplication() {}
+
+    static ConfigurableApplicationContext start(String... properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN"));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        return SpringApplication.run(AuthSystemApplication.class, args.toArray(new String[0]));
+    }
+
+    /**
+     * Seeds a small menu tree, ADMIN and USER roles, and {@code userCount} users with varied
+     * usernames and emails. Every user shares one password hash to keep seeding fast.
+     *
+     * @return the seeded usernames
+     */
+    static List<String> seed(ConfigurableApplicationContext context, int userCount) {
+        MenuRepository menuRepository = context.getBean(MenuRepository.class);
+        RoleRepository roleRepository = context.getBean(RoleRepository.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        String passwordHash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+
+        Menu system = menuRepository.save(menu("System Management", 0L, null));
+        Menu users = menuRepository.save(menu("User Management", system.getId(), "system:user:list"));
+        Menu roles = menuRepository.save(menu("Role Management", system.getId(), "system:role:list"));
+        Menu addUser = menuRepository.save(menu("Add User", users.getId(), "system:user:add"));
+
+        Role admin = new Role("ADMIN", "System Administrator");
+        admin.setMenus(Set.of(system, users, roles, addUser));
+        admin = roleRepository.save(admin);
+        Role user = new Role("USER", "Regular User");
+        user.setMenus(Set.of(system, users));
+        user = roleRepository.save(user);
+
+        Random random = new Random(42);
+        List<String> usernames = new ArrayList<>(userCount);
+        List<User> batch = new ArrayList<>();
+        for (int i = 0; i < userCount; i++) {
+            String username = name(random) + i;
+            User entity = new User(username, passwordHash, name(random) + "." + name(random) + "@example.com");
+            entity.setRoles(Set.of(i % 10 == 0 ? admin : user));
+            batch.add(entity);
+            usernames.add(username);
+            if (batch.size() == 1000) {
+                userRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        userRepository.saveAll(batch);
+        return usernames;
+    }
+
+    private static String name(Random random) {
+        StringBuilder name = new StringBuilder();
+        int syllables = 2 + random.nextInt(2);
+        for (int i = 0; i < syllables; i++) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return name.toString();
+    }
+
+    private static Menu menu(String name, Long parentId, String permission) {
+        Menu menu = new Menu(name, null, null, permission);
+        menu.setParentId(parentId);
+        return menu;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.authsystem.benchmark;
+
+import com.example.authsystem.security.JwtTokenProvider;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification. With {@code verifiedCache=false} the verified-token cache holds
+ * nothing, so every validation pays for the full parse and HMAC check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    @Param({"true", "false"})
+    public boolean verifiedCache;
+
+    @Param({"false", "true"})
+    public boolean statelessAuthorization;
+
+    private ConfigurableApplicationContext context;
+    private JwtTokenProvider jwtTokenProvider;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start(
+                "jwt.verified-cache.maximum-size=" + (verifiedCache ? 10000 : 0),
+                "jwt.stateless-authorization.enabled=" + statelessAuthorization);
+        String username = BenchmarkApplication.seed(context, 10).get(0);
+        jwtTokenProvider = context.getBean(JwtTokenProvider.class);
+        UserDetails user = context.getBean(UserDetailsService.class).loadUserByUsername(username);
+        authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+        token = jwtTokenProvider.generateToken(authentication);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenProvider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtTokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public String getUsernameFromToken() {
+        return jwtTokenProvider.getUsernameFromToken(token);
+    }
+}
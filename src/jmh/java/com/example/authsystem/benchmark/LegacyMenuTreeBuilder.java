@@ -0,0 +1,36 @@
+package com.example.authsystem.benchmark;
+
+import com.example.authsystem.dto.MenuDTO;
+import com.example.authsystem.entity.Menu;
+import com.example.authsystem.service.MenuTreeBuilder;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The menu tree construction {@code AuthController} used before {@link MenuTreeBuilder}: every
+ * root rescans the whole list for its children (O(n²)) and only two levels are built. Kept as
+ * the benchmark baseline.
+ */
+final class LegacyMenuTreeBuilder {
+
+    private LegacyMenuTreeBuilder() {}
+
+    static List<MenuDTO> build(List<Menu> menus) {
+        List<MenuDTO> rootMenus = menus.stream()
+                .filter(menu -> menu.getParentId() == 0)
+                .map(MenuTreeBuilder::convertToMenuDTO)
+                .collect(Collectors.toList());
+
+        rootMenus.forEach(menu -> menu.setChildren(getChildrenMenus(menus, menu.getId())));
+
+        return rootMenus;
+    }
+
+    private static List<MenuDTO> getChildrenMenus(List<Menu> menus, Long parentId) {
+        return menus.stream()
+                .filter(menu -> menu.getParentId().equals(parentId))
+                .map(MenuTreeBuilder::convertToMenuDTO)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.authsystem.benchmark;
+
+import com.example.authsystem.dto.MenuDTO;
+import com.example.authsystem.entity.Menu;
+import com.example.authsystem.service.MenuTreeBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Menu tree construction at different menu counts. Menus form a shuffled tree where every node
+ * has up to ten children, so a tenth of them are roots.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MenuTreeBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int menus;
+
+    private List<Menu> menuList;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        menuList = new ArrayList<>(menus);
+        int roots = Math.max(1, menus / 10);
+        for (long id = 1; id <= menus; id++) {
+            Menu menu = new Menu("Menu " + id, "/menu/" + id, null, "menu:" + id);
+            menu.setId(id);
+            menu.setParentId(id <= roots ? 0L : 1 + random.nextInt((int) id - 1));
+            menu.setSortOrder(random.nextInt(100));
+            menuList.add(menu);
+        }
+        Collections.shuffle(menuList, random);
+    }
+
+    @Benchmark
+    public List<MenuDTO> linear() {
+        return MenuTreeBuilder.build(menuList);
+    }
+
+    @Benchmark
+    public List<MenuDTO> legacy() {
+        return LegacyMenuTreeBuilder.build(menuList);
+    }
+}
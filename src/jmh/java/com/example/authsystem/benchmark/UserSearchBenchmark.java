@@ -0,0 +1,85 @@
+package com.example.authsystem.benchmark;
+
+import com.example.authsystem.controller.UserController;
+import com.example.authsystem.service.UserSearchIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The first page of {@code GET /api/users?username=...}, called on the controller bean, with the
+ * trigram index ({@code searchIndex=true}) and with the leading-wildcard JPQL {@code LIKE} it
+ * replaces ({@code searchIndex=false}). {@code indexLookupOnly} isolates the in-memory lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserSearchBenchmark {
+
+    @Param({"10000", "100000"})
+    public int users;
+
+    @Param({"4", "6"})
+    public int needleLength;
+
+    @Param({"true", "false"})
+    public boolean searchIndex;
+
+    private ConfigurableApplicationContext context;
+    private UserController userController;
+    private UserSearchIndex userSearchIndex;
+    private final List<String> needles = new ArrayList<>();
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("search-index.enabled=" + searchIndex);
+        List<String> usernames = BenchmarkApplication.seed(context, users);
+        userController = context.getBean(UserController.class);
+        userSearchIndex = context.getBean(UserSearchIndex.class);
+        userSearchIndex.rebuild();
+
+        // JMH may run the benchmark on a different thread than the setup
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "admin", null, AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+
+        Random random = new Random(7);
+        for (int i = 0; i < 64; i++) {
+            String username = usernames.get(random.nextInt(usernames.size()));
+            int start = random.nextInt(Math.max(1, username.length() - needleLength + 1));
+            needles.add(username.substring(start, Math.min(username.length(), start + needleLength)));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    private String nextNeedle() {
+        return needles.get(next++ & 63);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> listUsers() {
+        return userController.getAllUsers(0, 10, "id", "asc", nextNeedle(), null, null, null);
+    }
+
+    @Benchmark
+    public Collection<Long> indexLookupOnly() {
+        return userSearchIndex.search(nextNeedle(), null);
+    }
+}
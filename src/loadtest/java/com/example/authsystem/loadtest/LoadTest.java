@@ -0,0 +1,292 @@
+package com.example.authsystem.loadtest;
+
+import com.example.authsystem.AuthSystemApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end load generator. Boots the application on H2, seeds users, roles and menus, then
+ * drives a weighted mix of login, {@code /api/auth/me}, {@code /api/users} paging and role
+ * assignment from concurrent clients, and writes throughput and latency percentiles per endpoint
+ * to a JSON file.
+ * <p>
+ * Options are {@code key=value} arguments (see {@link #DEFAULTS}); arguments starting with
+ * {@code --} are passed to the application, e.g. {@code --spring.threads.virtual.enabled=true}.
+ */
+public final class LoadTest {
+
+    static final Map<String, String> DEFAULTS = Map.of(
+            "users", "1000",
+            "roles", "10",
+            "menus", "50",
+            "threads", "16",
+            "warmup", "10",
+            "duration", "30",
+            "tokens", "100",
+            "pageSize", "20",
+            "mix", "login:5,me:60,users:25,assign:10",
+            "output", "target/load-test-result.json");
+
+    private static final String[] ENDPOINTS = {"login", "me", "users", "assign"};
+
+    private final Map<String, String> options;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String baseUrl;
+    private boolean virtualThreads;
+    private LoadTestData data;
+    private String adminToken;
+    private final List<String> userTokens = new ArrayList<>();
+    private int[] cumulativeWeights;
+
+    private LoadTest(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new TreeMap<>(DEFAULTS);
+        List<String> applicationArgs = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                // Every simulated client logs in from the loopback address, which would share one IP bucket
+                "--login-throttle.enabled=false"));
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                applicationArgs.add(arg);
+            } else if (arg.contains("=")) {
+                String key = arg.substring(0, arg.indexOf('='));
+                if (!DEFAULTS.containsKey(key)) {
+                    throw new IllegalArgumentException("Unknown option '" + key + "', expected one of " + DEFAULTS.keySet());
+                }
+                options.put(key, arg.substring(key.length() + 1));
+            }
+        }
+
+        ConfigurableApplicationContext context = SpringApplication.run(
+                AuthSystemApplication.class, applicationArgs.toArray(new String[0]));
+        try {
+            LoadTest loadTest = new LoadTest(options);
+            loadTest.prepare(context);
+            loadTest.run(applicationArgs);
+        } finally {
+            context.close();
+        }
+    }
+
+    private int intOption(String key) {
+        return Integer.parseInt(options.get(key));
+    }
+
+    private void prepare(ConfigurableApplicationContext context) throws Exception {
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        virtualThreads = Runtime.version().feature() >= 21
+                && context.getEnvironment().getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        data = LoadTestData.seed(context, intOption("users"), intOption("roles"), intOption("menus"));
+
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : options.get("mix").split(",")) {
+            String[] parts = entry.split(":");
+            if (!List.of(ENDPOINTS).contains(parts[0].trim())) {
+                throw new IllegalArgumentException("Unknown endpoint '" + parts[0] + "' in mix, expected one of " + List.of(ENDPOINTS));
+            }
+            weights.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        cumulativeWeights = new int[ENDPOINTS.length];
+        int sum = 0;
+        for (int i = 0; i < ENDPOINTS.length; i++) {
+            sum += weights.getOrDefault(ENDPOINTS[i], 0);
+            cumulativeWeights[i] = sum;
+        }
+
+        adminToken = login(LoadTestData.ADMIN);
+        int tokenCount = Math.min(intOption("tokens"), data.usernames.size());
+        ExecutorService pool = Executors.newFixedThreadPool(intOption("threads"));
+        try {
+            List<Future<String>> tokens = new ArrayList<>();
+            for (int i = 0; i < tokenCount; i++) {
+                String username = data.usernames.get(i);
+                tokens.add(pool.submit(() -> login(username)));
+            }
+            for (Future<String> token : tokens) {
+                userTokens.add(token.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private String login(String username) throws Exception {
+        HttpResponse<String> response = send(loginRequest(username));
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login of " + username + " failed with " + response.statusCode());
+        }
+        JsonNode body = objectMapper.readTree(response.body());
+        return body.get("accessToken").asText();
+    }
+
+    private void run(List<String> applicationArgs) throws Exception {
+        int threads = intOption("threads");
+        System.out.printf("Warming up for %ss with %d clients against %s (%s threads)%n", options.get("warmup"), threads, baseUrl,
+                virtualThreads ? "virtual" : "platform");
+        drive(threads, intOption("warmup"));
+        System.out.printf("Measuring for %ss%n", options.get("duration"));
+        long startedAt = System.nanoTime();
+        List<Map<String, LatencyRecorder>> results = drive(threads, intOption("duration"));
+        double elapsedSeconds = (System.nanoTime() - startedAt) / 1e9;
+
+        Map<String, LatencyRecorder> merged = new LinkedHashMap<>();
+        for (String endpoint : ENDPOINTS) {
+            LatencyRecorder recorder = new LatencyRecorder();
+            results.forEach(workerResult -> recorder.merge(workerResult.get(endpoint)));
+            merged.put(endpoint, recorder);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("options", options);
+        report.put("applicationArgs", applicationArgs);
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        report.put("virtualThreads", virtualThreads);
+        report.put("elapsedSeconds", Math.round(elapsedSeconds * 1000) / 1000.0);
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        LatencyRecorder total = new LatencyRecorder();
+        merged.forEach((endpoint, recorder) -> {
+            endpoints.put(endpoint, recorder.summarize(elapsedSeconds));
+            total.merge(recorder);
+        });
+        report.put("endpoints", endpoints);
+        report.put("total", total.summarize(elapsedSeconds));
+
+        File output = new File(options.get("output"));
+        if (output.getParentFile() != null) {
+            output.getParentFile().mkdirs();
+        }
+        objectMapper.enable(SerializationFeature.INDENT_OUTPUT).writeValue(output, report);
+
+        System.out.printf("%-8s %10s %8s %10s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "p999 ms");
+        endpoints.forEach((endpoint, summary) -> print(endpoint, summary));
+        print("total", report.get("total"));
+        System.out.println("Report written to " + output.getAbsolutePath());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(String endpoint, Object summary) {
+        Map<String, Object> values = (Map<String, Object>) summary;
+        System.out.printf("%-8s %10s %8s %10s %9s %9s %9s %9s%n", endpoint, values.get("requests"), values.get("errors"),
+                values.get("throughputPerSecond"), values.get("p50Ms"), values.get("p95Ms"), values.get("p99Ms"), values.get("p999Ms"));
+    }
+
+    private List<Map<String, LatencyRecorder>> drive(int threads, int seconds) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Map<String, LatencyRecorder>>> workers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                workers.add(pool.submit(() -> work(deadline)));
+            }
+            List<Map<String, LatencyRecorder>> results = new ArrayList<>();
+            for (Future<Map<String, LatencyRecorder>> worker : workers) {
+                results.add(worker.get());
+            }
+            return results;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private Map<String, LatencyRecorder> work(long deadline) {
+        Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+        for (String endpoint : ENDPOINTS) {
+            recorders.put(endpoint, new LatencyRecorder());
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            String endpoint = pick(random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]));
+            HttpRequest request = request(endpoint, random);
+            long startedAt = System.nanoTime();
+            int status;
+            try {
+                status = send(request).statusCode();
+            } catch (Exception ex) {
+                status = 0;
+            }
+            recorders.get(endpoint).record(System.nanoTime() - startedAt, status);
+        }
+        return recorders;
+    }
+
+    private String pick(int roll) {
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return ENDPOINTS[i];
+            }
+        }
+        throw new IllegalStateException("Empty traffic mix");
+    }
+
+    private HttpRequest request(String endpoint, ThreadLocalRandom random) {
+        switch (endpoint) {
+            case "login":
+                return loginRequest(data.usernames.get(random.nextInt(data.usernames.size())));
+            case "me":
+                return authorized("/api/auth/me", userTokens.get(random.nextInt(userTokens.size()))).GET().build();
+            case "users":
+                int pages = Math.max(1, data.userIds.size() / intOption("pageSize"));
+                return authorized("/api/users?page=" + random.nextInt(pages) + "&size=" + intOption("pageSize"), adminToken)
+                        .GET().build();
+            case "assign":
+                String path = "/api/users/" + data.userIds.get(random.nextInt(data.userIds.size()))
+                        + "/roles/" + data.roleIds.get(random.nextInt(data.roleIds.size()));
+                HttpRequest.Builder builder = authorized(path, adminToken);
+                return (random.nextBoolean() ? builder.POST(HttpRequest.BodyPublishers.noBody()) : builder.DELETE()).build();
+            default:
+                throw new IllegalArgumentException("Unknown endpoint " + endpoint);
+        }
+    }
+
+    private HttpRequest loginRequest(String username) {
+        String body = "{\"username\":\"" + username + "\",\"password\":\"" + LoadTestData.PASSWORD + "\"}";
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest.Builder authorized(String path, String token) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token);
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.authsystem.loadtest;
+
+import com.example.authsystem.entity.Menu;
+import com.example.authsystem.entity.Role;
+import com.example.authsystem.entity.User;
+import com.example.authsystem.repository.MenuRepository;
+import com.example.authsystem.repository.RoleRepository;
+import com.example.authsystem.repository.UserRepository;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Seeds a deterministic data set: a menu tree, roles granting random menu subsets, an
+ * {@code admin} user with the ADMIN role and {@code user<n>} accounts with one to three roles.
+ * Every account shares {@link #PASSWORD}, hashed once.
+ */
+final class LoadTestData {
+
+    static final String ADMIN = "admin";
+    static final String PASSWORD = "password";
+
+    final List<Long> userIds = new ArrayList<>();
+    final List<String> usernames = new ArrayList<>();
+    final List<Long> roleIds = new ArrayList<>();
+
+    static LoadTestData seed(ApplicationContext context, int userCount, int roleCount, int menuCount) {
+        MenuRepository menuRepository = context.getBean(MenuRepository.class);
+        RoleRepository roleRepository = context.getBean(RoleRepository.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        String passwordHash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        Random random = new Random(42);
+        LoadTestData data = new LoadTestData();
+
+        List<Menu> menus = new ArrayList<>();
+        for (int i = 0; i < menuCount; i++) {
+            Menu menu = new Menu("Menu " + i, "/menu/" + i, null, "menu:" + i);
+            // The first tenth are roots, the rest hang below an earlier menu
+            menu.setParentId(i < Math.max(1, menuCount / 10) ? 0L : menus.get(random.nextInt(i)).getId());
+            menu.setSortOrder(random.nextInt(100));
+            menus.add(menuRepository.save(menu));
+        }
+
+        Role admin = new Role("ADMIN", "System Administrator");
+        admin.setMenus(new HashSet<>(menus));
+        admin = roleRepository.save(admin);
+        List<Role> roles = new ArrayList<>();
+        for (int i = 0; i < roleCount; i++) {
+            Role role = new Role("ROLE" + i, "Generated role " + i);
+            Set<Menu> granted = new HashSet<>();
+            for (Menu menu : menus) {
+                if (random.nextInt(4) == 0) {
+                    granted.add(menu);
+                }
+            }
+            role.setMenus(granted);
+            roles.add(roleRepository.save(role));
+            data.roleIds.add(roles.get(i).getId());
+        }
+
+        User adminUser = new User(ADMIN, passwordHash, "admin@example.com");
+        adminUser.setRoles(Set.of(admin));
+        userRepository.save(adminUser);
+
+        List<User> batch = new ArrayList<>();
+        for (int i = 1; i <= userCount; i++) {
+            User user = new User("user" + i, passwordHash, "user" + i + "@example.com");
+            Set<Role> assigned = new HashSet<>();
+            int roleAssignments = 1 + random.nextInt(3);
+            for (int r = 0; r < roleAssignments && !roles.isEmpty(); r++) {
+                assigned.add(roles.get(random.nextInt(roles.size())));
+            }
+            user.setRoles(assigned);
+            batch.add(user);
+            if (batch.size() == 1000 || i == userCount) {
+                for (User saved : userRepository.saveAll(batch)) {
+                    data.userIds.add(saved.getId());
+                    data.usernames.add(saved.getUsername());
+                }
+                batch.clear();
+            }
+        }
+        return data;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.authsystem.audit;
+
+public enum AuditEventType {
+    LOGIN_SUCCESS,
+    LOGIN_FAILURE,
+    LOGOUT,
+    USER_STATUS_CHANGED,
+    ROLES_ASSIGNED,
+    ROLES_REMOVED
+}
@@ -0,0 +1,220 @@
+package com.example.authsystem.audit;
+
+import com.example.authsystem.dto.AuditStatsResponse;
+import com.example.authsystem.entity.AuditEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Audit trail of security-relevant actions. Request threads only build an event and offer it to
+ * an {@link AuditRingBuffer}; a single background thread drains the buffer and hands batches of
+ * up to {@code audit.batch-size} events to the {@link AuditSink}, at the latest every
+ * {@code audit.flush-interval}. When the buffer is full, {@code audit.overflow-policy} decides
+ * whether the event is dropped or the caller waits briefly. On shutdown the writer drains what
+ * is left before the sink closes.
+ */
+@Component
+public class AuditLog {
+
+    private static final int MAX_DETAIL_LENGTH = 500;
+
+    @Autowired
+    private AuditSink auditSink;
+
+    private final AuditRingBuffer<AuditEvent> buffer;
+    private final AuditOverflowPolicy overflowPolicy;
+    private final long offerTimeoutNanos;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long shutdownTimeoutInMs;
+
+    private Thread writer;
+    private volatile boolean running = true;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder droppedOverflow = new LongAdder();
+    private final LongAdder droppedShutdown = new LongAdder();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failedWrites = new AtomicLong();
+    private final AtomicLong failedEvents = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private volatile long lastBatchNanos;
+    private volatile long maxLagMs;
+
+    public AuditLog(@Value("${audit.capacity:8192}") int capacity,
+                    @Value("${audit.overflow-policy:DROP}") AuditOverflowPolicy overflowPolicy,
+                    @Value("${audit.offer-timeout:100}") long offerTimeoutInMs,
+                    @Value("${audit.batch-size:500}") int batchSize,
+                    @Value("${audit.flush-interval:200}") long flushIntervalInMs,
+                    @Value("${audit.shutdown-timeout:10000}") long shutdownTimeoutInMs) {
+        this.buffer = new AuditRingBuffer<>(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutInMs);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalInMs);
+        this.shutdownTimeoutInMs = shutdownTimeoutInMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        writer = new Thread(this::writeLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Records an action of the authenticated user of the current request.
+     */
+    public void record(AuditEventType type, String target, String detail) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        record(type, authentication != null ? authentication.getName() : null, target, detail);
+    }
+
+    public void record(AuditEventType type, String actor, String target, String detail) {
+        publish(new AuditEvent(type, actor, target, truncate(detail), currentClientIp(), LocalDateTime.now()),
+                overflowPolicy == AuditOverflowPolicy.BLOCK);
+    }
+
+    /**
+     * Records the same action of the current user on many targets, e.g. a bulk role assignment.
+     * Waits for buffer space whatever the overflow policy, since such a burst can exceed the
+     * buffer on its own and bulk requests are not latency-sensitive.
+     */
+    public void recordEach(AuditEventType type, Collection<String> targets, String detail) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String actor = authentication != null ? authentication.getName() : null;
+        String clientIp = currentClientIp();
+        LocalDateTime now = LocalDateTime.now();
+        detail = truncate(detail);
+        for (String target : targets) {
+            publish(new AuditEvent(type, actor, target, detail, clientIp, now), true);
+        }
+    }
+
+    private static String truncate(String detail) {
+        return detail != null && detail.length() > MAX_DETAIL_LENGTH
+                ? detail.substring(0, MAX_DETAIL_LENGTH - 3) + "..."
+                : detail;
+    }
+
+    private void publish(AuditEvent event, boolean waitForSpace) {
+        if (!running) {
+            droppedShutdown.increment();
+            return;
+        }
+        if (buffer.offer(event) || waitForSpace && offerUntilTimeout(event)) {
+            published.increment();
+            if (buffer.size() >= batchSize) {
+                LockSupport.unpark(writer);
+            }
+        } else {
+            droppedOverflow.increment();
+        }
+    }
+
+    private boolean offerUntilTimeout(AuditEvent event) {
+        LockSupport.unpark(writer);
+        long deadline = System.nanoTime() + offerTimeoutNanos;
+        do {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+            if (buffer.offer(event)) {
+                return true;
+            }
+        } while (System.nanoTime() - deadline < 0);
+        return false;
+    }
+
+    private static String currentClientIp() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servletAttributes
+                ? servletAttributes.getRequest().getRemoteAddr()
+                : null;
+    }
+
+    private void writeLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (true) {
+            boolean stopping = !running;
+            int drained = buffer.drainTo(batch, batchSize);
+            if (drained > 0) {
+                write(batch);
+                batch.clear();
+            }
+            if (drained < batchSize) {
+                if (stopping) {
+                    // Drained after running turned false; record() no longer offers new events
+                    return;
+                }
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+        }
+    }
+
+    private void write(List<AuditEvent> batch) {
+        long startedAt = System.nanoTime();
+        long lagMs = Duration.between(batch.get(0).getOccurredAt(), LocalDateTime.now()).toMillis();
+        try {
+            auditSink.write(batch);
+            written.addAndGet(batch.size());
+        } catch (Exception ex) {
+            // The sink is unavailable; the batch is counted and dropped so the buffer keeps moving
+            failedWrites.incrementAndGet();
+            failedEvents.addAndGet(batch.size());
+        }
+        batches.incrementAndGet();
+        lastBatchNanos = System.nanoTime() - startedAt;
+        if (lagMs > maxLagMs) {
+            maxLagMs = lagMs;
+        }
+    }
+
+    /**
+     * Age of the oldest event still waiting in the buffer, in milliseconds.
+     */
+    public long lagMs() {
+        AuditEvent oldest = buffer.peek();
+        return oldest != null ? Math.max(0, Duration.between(oldest.getOccurredAt(), LocalDateTime.now()).toMillis()) : 0;
+    }
+
+    public AuditStatsResponse stats() {
+        return new AuditStatsResponse(
+                buffer.capacity(),
+                buffer.size(),
+                lagMs(),
+                maxLagMs,
+                published.sum(),
+                written.get(),
+                droppedOverflow.sum(),
+                droppedShutdown.sum(),
+                failedEvents.get(),
+                failedWrites.get(),
+                batches.get(),
+                lastBatchNanos / 1_000_000.0
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(shutdownTimeoutInMs);
+    }
+}
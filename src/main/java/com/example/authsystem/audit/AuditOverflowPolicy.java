@@ -0,0 +1,11 @@
+package com.example.authsystem.audit;
+
+/**
+ * What a request thread does when the audit ring buffer is full.
+ */
+public enum AuditOverflowPolicy {
+    /** Drop the new event and count it; request threads never wait. */
+    DROP,
+    /** Wait up to {@code audit.offer-timeout} for the writer to free a slot, then drop. */
+    BLOCK
+}
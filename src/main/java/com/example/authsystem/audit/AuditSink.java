@@ -0,0 +1,13 @@
+package com.example.authsystem.audit;
+
+import com.example.authsystem.entity.AuditEvent;
+
+import java.util.List;
+
+/**
+ * Destination of audit batches. Called only from the audit writer thread.
+ */
+public interface AuditSink {
+
+    void write(List<AuditEvent> events) throws Exception;
+}
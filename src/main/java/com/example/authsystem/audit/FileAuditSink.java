@@ -0,0 +1,105 @@
+package com.example.authsystem.audit;
+
+import com.example.authsystem.entity.AuditEvent;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Appends each batch as NDJSON to {@code audit.file.path}. Once the file reaches
+ * {@code audit.file.max-size} it is renamed with a timestamp suffix and a new file is started;
+ * existing lines are never rewritten.
+ */
+@Component
+@ConditionalOnProperty(name = "audit.sink", havingValue = "file")
+public class FileAuditSink implements AuditSink {
+
+    private static final DateTimeFormatter ROLL_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Path path;
+
+    private final long maxSize;
+
+    private Writer writer;
+
+    private long size;
+
+    public FileAuditSink(@Value("${audit.file.path:logs/audit.log}") String path,
+                         @Value("${audit.file.max-size:10485760}") long maxSize) {
+        this.path = Paths.get(path).toAbsolutePath();
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public void write(List<AuditEvent> events) throws IOException {
+        if (writer == null) {
+            open();
+        } else if (size >= maxSize) {
+            roll();
+        }
+
+        StringWriter lines = new StringWriter(events.size() * 160);
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(lines)) {
+            json.setRootValueSeparator(null);
+            for (AuditEvent event : events) {
+                json.writeStartObject();
+                json.writeStringField("type", event.getType().name());
+                json.writeStringField("actor", event.getActor());
+                json.writeStringField("target", event.getTarget());
+                json.writeStringField("detail", event.getDetail());
+                json.writeStringField("clientIp", event.getClientIp());
+                json.writeStringField("occurredAt", event.getOccurredAt().toString());
+                json.writeEndObject();
+                json.writeRaw('\n');
+            }
+        }
+        String chunk = lines.toString();
+        writer.write(chunk);
+        writer.flush();
+        size += chunk.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(path.getParent());
+        writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+        size = Files.size(path);
+    }
+
+    private void roll() throws IOException {
+        close();
+        String fileName = path.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        String suffix = "-" + LocalDateTime.now().format(ROLL_SUFFIX);
+        String rolledName = dot > 0 ? fileName.substring(0, dot) + suffix + fileName.substring(dot) : fileName + suffix;
+        Files.move(path, path.resolveSibling(rolledName));
+        open();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+}
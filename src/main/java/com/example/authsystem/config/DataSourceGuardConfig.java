@@ -0,0 +1,69 @@
+package com.example.authsystem.config;
+
+import com.example.authsystem.datasource.GuardedDataSource;
+import com.example.authsystem.datasource.ReadWriteRoutingDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Wraps the application {@link DataSource} in a {@link GuardedDataSource} when
+ * {@code datasource-guard.enabled} is set, which the {@code virtual-threads} profile does. With
+ * read/write routing, the primary and every replica pool get a guard of their own instead.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource-guard.enabled", havingValue = "true")
+public class DataSourceGuardConfig {
+
+    @Bean
+    public static BeanPostProcessor dataSourceGuardPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // The routing data source guards its pools itself, whichever post-processor runs first
+                if (bean instanceof DataSource dataSource && !(bean instanceof ReadWriteRoutingDataSource)) {
+                    return guard(environment, dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Wraps one connection pool in a {@link GuardedDataSource} if {@code datasource-guard.enabled}
+     * is set and it is not guarded yet.
+     */
+    public static DataSource guard(Environment environment, DataSource dataSource) {
+        if (!environment.getProperty("datasource-guard.enabled", Boolean.class, false)
+                || dataSource instanceof GuardedDataSource) {
+            return dataSource;
+        }
+        int permits = environment.getProperty("datasource-guard.permits", Integer.class, 10);
+        long timeoutInMs = environment.getProperty("datasource-guard.timeout", Long.class, 5000L);
+        return new GuardedDataSource(dataSource, permits, timeoutInMs);
+    }
+
+    @Bean
+    public MeterBinder dataSourceGuardMetrics(DataSource dataSource) throws SQLException {
+        GuardedDataSource guard = dataSource.unwrap(GuardedDataSource.class);
+        return registry -> {
+            Gauge.builder("datasource.guard.available", guard, GuardedDataSource::getAvailablePermits)
+                    .description("Database permits currently free")
+                    .register(registry);
+            Gauge.builder("datasource.guard.waiting", guard, GuardedDataSource::getQueueLength)
+                    .description("Threads waiting for a database permit")
+                    .register(registry);
+            FunctionCounter.builder("datasource.guard.timeouts", guard, GuardedDataSource::getTimeouts)
+                    .description("Connection requests that gave up waiting for a permit")
+                    .register(registry);
+        };
+    }
+}
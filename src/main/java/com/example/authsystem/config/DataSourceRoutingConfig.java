@@ -0,0 +1,131 @@
+package com.example.authsystem.config;
+
+import com.example.authsystem.datasource.ReadWriteRoutingDataSource;
+import com.example.authsystem.datasource.ReplicaSelection;
+import com.example.authsystem.event.RbacChangedEvent;
+import com.example.authsystem.event.UserChangedEvent;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.DestructionAwareBeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Puts a {@link ReadWriteRoutingDataSource} in front of the application {@link DataSource} when
+ * {@code datasource-routing.enabled} is set, with one Hikari pool per URL in
+ * {@code datasource-routing.replica-urls}. Every user or role change, local or replayed from
+ * another instance, keeps reads on the primary for {@code datasource-routing.primary-after-write}.
+ * <p>
+ * The replica pools are not beans: each is guarded like the primary when
+ * {@code datasource-guard.enabled} is set and closed right before the primary pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource-routing.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Bean
+    public static BeanPostProcessor dataSourceRoutingPostProcessor(Environment environment) {
+        String[] replicaUrls = environment.getProperty("datasource-routing.replica-urls", String[].class, new String[0]);
+        ReplicaSelection selection = environment.getProperty("datasource-routing.selection", ReplicaSelection.class,
+                ReplicaSelection.ROUND_ROBIN);
+        long primaryAfterWriteInMs = environment.getProperty("datasource-routing.primary-after-write", Long.class, 2000L);
+        long replicaRetryInMs = environment.getProperty("datasource-routing.replica-retry", Long.class, 30000L);
+        return new DestructionAwareBeanPostProcessor() {
+            private ReadWriteRoutingDataSource routing;
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource primary && "dataSource".equals(beanName)
+                        && !(bean instanceof ReadWriteRoutingDataSource)) {
+                    List<DataSource> replicas = new ArrayList<>();
+                    List<String> names = new ArrayList<>();
+                    for (int i = 0; i < replicaUrls.length; i++) {
+                        replicas.add(DataSourceGuardConfig.guard(environment, replica(environment, replicaUrls[i].trim(), i)));
+                        names.add("replica-" + i);
+                    }
+                    routing = new ReadWriteRoutingDataSource(DataSourceGuardConfig.guard(environment, primary), replicas, names,
+                            selection, primaryAfterWriteInMs, replicaRetryInMs);
+                    return routing;
+                }
+                return bean;
+            }
+
+            // Spring destroys the pool it created, not the routing that replaced it, so the replicas are closed here
+            @Override
+            public void postProcessBeforeDestruction(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && routing != null) {
+                    try {
+                        routing.closeReplicas();
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                }
+            }
+        };
+    }
+
+    private static DataSource replica(Environment environment, String url, int index) {
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(environment.getProperty("spring.datasource.driver-class-name"))
+                .url(url)
+                .username(environment.getProperty("datasource-routing.replica-username",
+                        environment.getProperty("spring.datasource.username")))
+                .password(environment.getProperty("datasource-routing.replica-password",
+                        environment.getProperty("spring.datasource.password")))
+                .build();
+        replica.setPoolName("replica-" + index);
+        replica.setMaximumPoolSize(environment.getProperty("datasource-routing.replica-pool-size", Integer.class, 10));
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    // Token revocations are left out: revoked_tokens is never read in a read-only transaction
+    @EventListener({UserChangedEvent.class, RbacChangedEvent.class})
+    public void onInvalidation() throws SQLException {
+        dataSource.unwrap(ReadWriteRoutingDataSource.class).markWritten();
+    }
+
+    @Bean
+    public MeterBinder dataSourceRoutingMetrics(DataSource dataSource) throws SQLException {
+        ReadWriteRoutingDataSource routing = dataSource.unwrap(ReadWriteRoutingDataSource.class);
+        return registry -> {
+            FunctionCounter.builder("datasource.routing.primary.reads", routing, ReadWriteRoutingDataSource::getPrimaryReads)
+                    .description("Read-only connections served by the primary after a recent write or without a healthy replica")
+                    .register(registry);
+            FunctionCounter.builder("datasource.routing.fallbacks", routing, ReadWriteRoutingDataSource::getFallbacks)
+                    .description("Read-only connections that fell back to the primary because a replica failed")
+                    .register(registry);
+            for (ReadWriteRoutingDataSource.Replica replica : routing.getReplicas()) {
+                Gauge.builder("datasource.routing.replica.active", replica, ReadWriteRoutingDataSource.Replica::getActive)
+                        .description("Connections currently handed out by a replica")
+                        .tag("replica", replica.getName())
+                        .register(registry);
+                FunctionCounter.builder("datasource.routing.replica.connections", replica, ReadWriteRoutingDataSource.Replica::getBorrowed)
+                        .tag("replica", replica.getName())
+                        .register(registry);
+                FunctionCounter.builder("datasource.routing.replica.failures", replica, ReadWriteRoutingDataSource.Replica::getFailures)
+                        .tag("replica", replica.getName())
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.authsystem.config;
+
+import com.example.authsystem.audit.AuditLog;
+import com.example.authsystem.invalidation.InvalidationBus;
+import com.example.authsystem.security.LoginExecutor;
+import com.example.authsystem.security.LoginThrottle;
+import com.example.authsystem.security.UserDetailsCache;
+import com.example.authsystem.security.VerifiedTokenCache;
+import com.example.authsystem.service.MenuTreeService;
+import com.example.authsystem.service.UserSearchIndex;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the in-process caches, the login executor and throttle, the user search index and
+ * the audit pipeline and the invalidation bus to Micrometer.
+ * Repository timings come from Spring Boot's {@code spring.data.repository.invocations} metric.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder cacheMetrics(UserDetailsCache userDetailsCache, VerifiedTokenCache verifiedTokenCache,
+                                    MenuTreeService menuTreeService) {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, userDetailsCache.getNativeCache(), UserDetailsCache.NAME);
+            CaffeineCacheMetrics.monitor(registry, verifiedTokenCache.getNativeCache(), VerifiedTokenCache.NAME);
+            CaffeineCacheMetrics.monitor(registry, menuTreeService.getNativeCache(), MenuTreeService.NAME);
+        };
+    }
+
+    @Bean
+    public MeterBinder loginExecutorMetrics(LoginExecutor loginExecutor) {
+        return registry -> {
+            new ExecutorServiceMetrics(loginExecutor.getNativeExecutor(), "login", Tags.empty()).bindTo(registry);
+            FunctionCounter.builder("login.executor.rejected", loginExecutor, executor -> executor.stats().getRejectedCount())
+                    .description("Logins rejected because the login queue was full or verification timed out")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder loginThrottleMetrics(LoginThrottle loginThrottle) {
+        return registry -> {
+            Gauge.builder("auth.login.throttle.buckets", loginThrottle, LoginThrottle::getIpBucketCount)
+                    .description("Login token buckets currently held")
+                    .tag("key", "ip")
+                    .register(registry);
+            Gauge.builder("auth.login.throttle.buckets", loginThrottle, LoginThrottle::getUsernameBucketCount)
+                    .description("Login token buckets currently held")
+                    .tag("key", "username")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder searchIndexMetrics(UserSearchIndex userSearchIndex) {
+        return registry -> {
+            Gauge.builder("search.index.documents", userSearchIndex, index -> index.stats().getDocumentCount())
+                    .register(registry);
+            Gauge.builder("search.index.memory", userSearchIndex, index -> index.stats().getEstimatedBytes())
+                    .baseUnit("bytes")
+                    .register(registry);
+            FunctionCounter.builder("search.index.fallbacks", userSearchIndex, index -> index.stats().getFallbackCount())
+                    .description("User searches answered by SQL because the index could not answer")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder auditMetrics(AuditLog auditLog) {
+        return registry -> {
+            Gauge.builder("audit.queue.depth", auditLog, log -> log.stats().getQueueDepth())
+                    .description("Audit events waiting for the writer")
+                    .register(registry);
+            TimeGauge.builder("audit.lag", auditLog, TimeUnit.MILLISECONDS, AuditLog::lagMs)
+                    .description("Age of the oldest audit event not yet written")
+                    .register(registry);
+            FunctionCounter.builder("audit.events.published", auditLog, log -> log.stats().getPublishedCount())
+                    .register(registry);
+            FunctionCounter.builder("audit.events.written", auditLog, log -> log.stats().getWrittenCount())
+                    .register(registry);
+            FunctionCounter.builder("audit.events.dropped", auditLog, log -> log.stats().getDroppedOverflowCount())
+                    .description("Audit events lost, by reason")
+                    .tag("reason", "overflow")
+                    .register(registry);
+            FunctionCounter.builder("audit.events.dropped", auditLog, log -> log.stats().getDroppedShutdownCount())
+                    .description("Audit events lost, by reason")
+                    .tag("reason", "shutdown")
+                    .register(registry);
+            FunctionCounter.builder("audit.events.dropped", auditLog, log -> log.stats().getFailedEventCount())
+                    .description("Audit events lost, by reason")
+                    .tag("reason", "write_failed")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder invalidationMetrics(InvalidationBus invalidationBus) {
+        return registry -> {
+            TimeGauge.builder("invalidation.poll.age", invalidationBus, TimeUnit.MILLISECONDS,
+                            bus -> bus.stats().getLastPollAgeMs())
+                    .description("Time since the change log was last read; bounds how stale this instance's caches can be")
+                    .register(registry);
+            Gauge.builder("invalidation.gaps", invalidationBus, bus -> bus.stats().getPendingGapCount())
+                    .description("Change log ids skipped by a poll and still awaited")
+                    .register(registry);
+            FunctionCounter.builder("invalidation.events.published", invalidationBus, bus -> bus.stats().getPublishedCount())
+                    .register(registry);
+            FunctionCounter.builder("invalidation.events.publish.failed", invalidationBus, bus -> bus.stats().getPublishFailedCount())
+                    .register(registry);
+            FunctionCounter.builder("invalidation.events.applied", invalidationBus, bus -> bus.stats().getAppliedCount())
+                    .description("Changes of other instances applied to the local caches")
+                    .register(registry);
+            FunctionCounter.builder("invalidation.poll.failures", invalidationBus, bus -> bus.stats().getFailedPollCount())
+                    .register(registry);
+        };
+    }
+}
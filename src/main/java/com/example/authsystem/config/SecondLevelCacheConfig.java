@@ -0,0 +1,107 @@
+package com.example.authsystem.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate second-level cache for the small, read-mostly RBAC tables. Regions live in a JCache
+ * {@link CacheManager} backed by Caffeine and are created here with the sizes and TTLs from
+ * {@code second-level-cache.*}, so a region missing from this list fails at startup instead of
+ * silently growing without bounds.
+ * <p>
+ * Writes through Hibernate keep the regions and the query cache current on this instance;
+ * {@link com.example.authsystem.service.SecondLevelCacheService} evicts on RBAC change events,
+ * which also covers changes replayed from other instances.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String ROLE_REGION = "roles";
+    public static final String MENU_REGION = "menus";
+    public static final String ROLE_MENUS_REGION = "role-menus";
+    public static final String RBAC_QUERY_REGION = "rbac-queries";
+
+    // Created by Hibernate when the query cache is on; the timestamps region must never expire
+    private static final String DEFAULT_QUERY_REGION = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Value("${second-level-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${second-level-cache.roles.maximum-size:1000}")
+    private long roleMaximumSize;
+
+    @Value("${second-level-cache.roles.ttl:3600000}")
+    private long roleTtlInMs;
+
+    @Value("${second-level-cache.menus.maximum-size:5000}")
+    private long menuMaximumSize;
+
+    @Value("${second-level-cache.menus.ttl:3600000}")
+    private long menuTtlInMs;
+
+    @Value("${second-level-cache.role-menus.maximum-size:1000}")
+    private long roleMenusMaximumSize;
+
+    @Value("${second-level-cache.role-menus.ttl:3600000}")
+    private long roleMenusTtlInMs;
+
+    @Value("${second-level-cache.queries.maximum-size:1000}")
+    private long queryMaximumSize;
+
+    @Value("${second-level-cache.queries.ttl:600000}")
+    private long queryTtlInMs;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        // Not the provider's default manager: contexts sharing a JVM would share, and close, each other's regions
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hibernate-l2:" + UUID.randomUUID()), getClass().getClassLoader());
+        createRegion(cacheManager, ROLE_REGION, roleMaximumSize, roleTtlInMs);
+        createRegion(cacheManager, MENU_REGION, menuMaximumSize, menuTtlInMs);
+        createRegion(cacheManager, ROLE_MENUS_REGION, roleMenusMaximumSize, roleMenusTtlInMs);
+        createRegion(cacheManager, RBAC_QUERY_REGION, queryMaximumSize, queryTtlInMs);
+        createRegion(cacheManager, DEFAULT_QUERY_REGION, queryMaximumSize, queryTtlInMs);
+        // One entry per table, read on every query cache hit to detect writes since the put
+        createRegion(cacheManager, UPDATE_TIMESTAMPS_REGION, 1000, 0);
+        return cacheManager;
+    }
+
+    private static void createRegion(CacheManager cacheManager, String name, long maximumSize, long ttlInMs) {
+        if (cacheManager.getCache(name) != null) {
+            return;
+        }
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        if (ttlInMs > 0) {
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.MILLISECONDS.toNanos(ttlInMs)));
+        }
+        configuration.setNativeStatisticsEnabled(true);
+        cacheManager.createCache(name, configuration);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, enabled);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, enabled);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+}
@@ -2,9 +2,18 @@ package com.example.authsystem.config;
 
 import com.example.authsystem.security.JwtAuthenticationEntryPoint;
 import com.example.authsystem.security.JwtAuthenticationFilter;
+import com.example.authsystem.security.PermissionCatalog;
+import com.example.authsystem.security.PermissionSetEvaluator;
+import com.example.authsystem.security.PermissionSetExpressionHandler;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -15,7 +24,12 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+
+import java.util.Arrays;
+import java.util.List;
 
 @Configuration
 @EnableWebSecurity
@@ -28,11 +42,22 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Value("${metrics-scrape.allowed-addresses:}")
+    private String[] scrapeAddresses;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
     }
 
+    @Bean
+    public static MethodSecurityExpressionHandler methodSecurityExpressionHandler(PermissionSetEvaluator permissionEvaluator,
+                                                                                  PermissionCatalog permissionCatalog) {
+        PermissionSetExpressionHandler handler = new PermissionSetExpressionHandler(permissionCatalog);
+        handler.setPermissionEvaluator(permissionEvaluator);
+        return handler;
+    }
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
         return config.getAuthenticationManager();
@@ -44,9 +69,14 @@ public class SecurityConfig {
                 .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(jwtAuthenticationEntryPoint))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authz -> authz
+                        // Completion of streamed responses; the request was authorized on its first dispatch
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/swagger-ui/**", "/swagger-ui.html", "/api-docs/**", "/v3/api-docs/**").permitAll()
                         .requestMatchers("/h2-console/**").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/prometheus").access(scrapeAccess())
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 );
 
@@ -58,4 +88,25 @@ public class SecurityConfig {
 
         return http.build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Prometheus scrapes need the ADMIN role unless they come from one of
+     * {@code metrics-scrape.allowed-addresses}.
+     */
+    private AuthorizationManager<RequestAuthorizationContext> scrapeAccess() {
+        AuthorizationManager<RequestAuthorizationContext> admin = AuthorityAuthorizationManager.hasRole("ADMIN");
+        if (scrapeAddresses.length == 0) {
+            return admin;
+        }
+        List<IpAddressMatcher> allowed = Arrays.stream(scrapeAddresses).map(IpAddressMatcher::new).toList();
+        return (authentication, context) -> {
+            String address = context.getRequest().getRemoteAddr();
+            for (IpAddressMatcher matcher : allowed) {
+                if (matcher.matches(address)) {
+                    return new AuthorizationDecision(true);
+                }
+            }
+            return admin.check(authentication, context);
+        };
+    }
+}
@@ -1,25 +1,42 @@
 package com.example.authsystem.controller;
 
+import com.example.authsystem.audit.AuditEventType;
+import com.example.authsystem.audit.AuditLog;
 import com.example.authsystem.dto.JwtAuthenticationResponse;
 import com.example.authsystem.dto.LoginRequest;
 import com.example.authsystem.dto.MenuDTO;
-import com.example.authsystem.entity.Menu;
+import com.example.authsystem.dto.RefreshTokenRequest;
 import com.example.authsystem.entity.User;
-import com.example.authsystem.repository.MenuRepository;
 import com.example.authsystem.repository.UserRepository;
 import com.example.authsystem.security.JwtTokenProvider;
+import com.example.authsystem.security.LoginExecutor;
+import com.example.authsystem.security.LoginThrottle;
+import com.example.authsystem.security.TokenRevocationStore;
+import com.example.authsystem.service.MenuTreeService;
+import com.example.authsystem.service.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @RestController
@@ -37,23 +54,50 @@ public class AuthController {
     private UserRepository userRepository;
 
     @Autowired
-    private MenuRepository menuRepository;
+    private MenuTreeService menuTreeService;
+
+    @Autowired
+    private LoginExecutor loginExecutor;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${login-executor.retry-after-seconds:1}")
+    private int loginRetryAfterSeconds;
 
     @PostMapping("/login")
     @Operation(summary = "User login", description = "Authenticate user and return JWT token")
-    public ResponseEntity<JwtAuthenticationResponse> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<JwtAuthenticationResponse> authenticateUser(@Valid @RequestBody LoginRequest loginRequest,
+                                                                      HttpServletRequest request) {
+        // Before the login pool: throttled attempts cost neither a user lookup nor a password hash
+        long retryAfterMs = loginThrottle.tryAcquire(request.getRemoteAddr(), loginRequest.getUsername());
+        if (retryAfterMs > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf((retryAfterMs + 999) / 1000))
+                    .body(new JwtAuthenticationResponse("", "", null, null));
+        }
+
         try {
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            loginRequest.getUsername(),
-                            loginRequest.getPassword()
-                    )
-            );
+            Authentication authentication = loginExecutor.execute(() -> authenticate(loginRequest));
+            loginThrottle.onSuccess(loginRequest.getUsername());
+            auditLog.record(AuditEventType.LOGIN_SUCCESS, loginRequest.getUsername(), loginRequest.getUsername(), null);
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
             String jwt = tokenProvider.generateToken(authentication);
 
-            User user = userRepository.findByUsername(loginRequest.getUsername()).orElse(null);
+            User user = userRepository.findWithRolesByUsername(loginRequest.getUsername()).orElse(null);
             if (user == null) {
                 return ResponseEntity.badRequest().body(new JwtAuthenticationResponse("", "", null, null));
             }
@@ -62,54 +106,108 @@ public class AuthController {
                     .map(role -> role.getName())
                     .collect(Collectors.toList());
 
-            List<Menu> userMenus = menuRepository.findByUsername(user.getUsername());
-            List<MenuDTO> menuDTOs = buildMenuTree(userMenus);
+            List<Long> roleIds = user.getRoles().stream()
+                    .map(role -> role.getId())
+                    .collect(Collectors.toList());
+            List<MenuDTO> menuDTOs = menuTreeService.getMenuTree(roleIds);
 
             JwtAuthenticationResponse response = new JwtAuthenticationResponse(jwt, user.getUsername(), roles, menuDTOs);
+            response.setRefreshToken(tokenProvider.generateRefreshToken(user.getUsername()));
             return ResponseEntity.ok(response);
 
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(loginRetryAfterSeconds))
+                    .body(new JwtAuthenticationResponse("", "", null, null));
+        } catch (AuthenticationException e) {
+            auditLog.record(AuditEventType.LOGIN_FAILURE, loginRequest.getUsername(), loginRequest.getUsername(),
+                    e.getClass().getSimpleName());
+            return ResponseEntity.badRequest().body(new JwtAuthenticationResponse("", "", null, null));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new JwtAuthenticationResponse("", "", null, null));
         }
     }
 
-    private List<MenuDTO> buildMenuTree(List<Menu> menus) {
-        List<MenuDTO> rootMenus = menus.stream()
-                .filter(menu -> menu.getParentId() == 0)
-                .map(this::convertToMenuDTO)
-                .collect(Collectors.toList());
+    @PostMapping("/refresh")
+    @Operation(summary = "Refresh token", description = "Exchange a refresh token for a new access token and refresh token "
+            + "without re-entering the password. Each refresh token can be used once")
+    public ResponseEntity<JwtAuthenticationResponse> refreshToken(@Valid @RequestBody RefreshTokenRequest refreshRequest) {
+        Claims claims = tokenProvider.verifyRefreshToken(refreshRequest.getRefreshToken());
+        if (claims == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
 
-        rootMenus.forEach(menu -> menu.setChildren(getChildrenMenus(menus, menu.getId())));
+        UserDetails userDetails;
+        try {
+            userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        } catch (UsernameNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
 
-        return rootMenus;
-    }
+        // Rotation: a refresh token presented a second time has been stolen or replayed
+        if (!tokenRevocationStore.revokeToken(claims.getId(), claims.getExpiration())) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
 
-    private List<MenuDTO> getChildrenMenus(List<Menu> menus, Long parentId) {
-        return menus.stream()
-                .filter(menu -> menu.getParentId().equals(parentId))
-                .map(this::convertToMenuDTO)
+        List<String> roles = userDetails.getAuthorities().stream()
+                .map(authority -> authority.getAuthority())
+                .filter(authority -> authority.startsWith("ROLE_"))
+                .map(authority -> authority.substring("ROLE_".length()))
                 .collect(Collectors.toList());
+
+        JwtAuthenticationResponse response = new JwtAuthenticationResponse(
+                tokenProvider.generateToken(userDetails), userDetails.getUsername(), roles, null);
+        response.setRefreshToken(tokenProvider.generateRefreshToken(userDetails.getUsername()));
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/logout")
+    @Operation(summary = "User logout", description = "Revoke the bearer access token and, if given, the refresh token")
+    public ResponseEntity<Void> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                       @RequestBody(required = false) RefreshTokenRequest refreshRequest) {
+        Claims claims = authorization != null && authorization.startsWith("Bearer ")
+                ? tokenProvider.verifyToken(authorization.substring(7))
+                : null;
+        if (claims == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        tokenRevocationStore.revokeToken(claims.getId(), claims.getExpiration());
+        auditLog.record(AuditEventType.LOGOUT, claims.getSubject(), claims.getSubject(), null);
+
+        if (refreshRequest != null && refreshRequest.getRefreshToken() != null) {
+            Claims refreshClaims = tokenProvider.verifyRefreshToken(refreshRequest.getRefreshToken());
+            if (refreshClaims != null && refreshClaims.getSubject().equals(claims.getSubject())) {
+                tokenRevocationStore.revokeToken(refreshClaims.getId(), refreshClaims.getExpiration());
+            }
+        }
+        return ResponseEntity.noContent().build();
     }
 
-    private MenuDTO convertToMenuDTO(Menu menu) {
-        return new MenuDTO(
-                menu.getId(),
-                menu.getName(),
-                menu.getPath(),
-                menu.getComponent(),
-                menu.getIcon(),
-                menu.getParentId(),
-                menu.getSortOrder(),
-                menu.getPermission(),
-                menu.getMenuType()
-        );
+    private Authentication authenticate(LoginRequest loginRequest) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            Authentication authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            loginRequest.getUsername(),
+                            loginRequest.getPassword()
+                    )
+            );
+            outcome = "success";
+            return authentication;
+        } finally {
+            sample.stop(Timer.builder("auth.login.authenticate")
+                    .description("Password authentication of logins, excluding the wait for a login thread")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
     }
 
     @GetMapping("/me")
     @Operation(summary = "Get current user", description = "Get current authenticated user information")
     public ResponseEntity<User> getCurrentUser() {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByUsername(username).orElse(null);
+        User user = userRepository.findWithRolesAndMenusByUsername(username).orElse(null);
         return ResponseEntity.ok(user);
     }
 }
\ No newline at end of file
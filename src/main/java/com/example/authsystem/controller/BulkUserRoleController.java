@@ -0,0 +1,82 @@
+package com.example.authsystem.controller;
+
+import com.example.authsystem.audit.AuditEventType;
+import com.example.authsystem.audit.AuditLog;
+import com.example.authsystem.dto.BulkRoleRequest;
+import com.example.authsystem.dto.BulkRoleResponse;
+import com.example.authsystem.event.UserChangedEvent;
+import com.example.authsystem.repository.RoleRepository;
+import com.example.authsystem.service.UserRoleBulkService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/users/roles")
+@Tag(name = "User-Role Management", description = "User role assignment APIs")
+public class BulkUserRoleController {
+
+    @Autowired
+    private UserRoleBulkService userRoleBulkService;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @PostMapping("/assign")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Assign roles to many users", description = "Add roles to the given `userIds`, or to every user "
+            + "matching the `username`/`email`/`status` filters, keeping their other roles")
+    public ResponseEntity<BulkRoleResponse> assignRoles(@Valid @RequestBody BulkRoleRequest request) {
+        ResponseEntity<BulkRoleResponse> invalid = validate(request);
+        if (invalid != null) {
+            return invalid;
+        }
+        return ResponseEntity.ok(publish(userRoleBulkService.assignRoles(request), AuditEventType.ROLES_ASSIGNED, request));
+    }
+
+    @PostMapping("/remove")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Remove roles from many users", description = "Remove roles from the given `userIds`, or from every "
+            + "user matching the `username`/`email`/`status` filters")
+    public ResponseEntity<BulkRoleResponse> removeRoles(@Valid @RequestBody BulkRoleRequest request) {
+        ResponseEntity<BulkRoleResponse> invalid = validate(request);
+        if (invalid != null) {
+            return invalid;
+        }
+        return ResponseEntity.ok(publish(userRoleBulkService.removeRoles(request), AuditEventType.ROLES_REMOVED, request));
+    }
+
+    private ResponseEntity<BulkRoleResponse> validate(BulkRoleRequest request) {
+        // Either explicit users or a filter; an empty request must not silently target everyone
+        if ((request.getUserIds() == null) == !request.hasFilter()) {
+            return ResponseEntity.badRequest().build();
+        }
+        Set<Long> roleIds = new HashSet<>(request.getRoleIds());
+        if (roleRepository.countByIdIn(roleIds) != roleIds.size()) {
+            return ResponseEntity.notFound().build();
+        }
+        return null;
+    }
+
+    private BulkRoleResponse publish(UserRoleBulkService.Result result, AuditEventType auditType, BulkRoleRequest request) {
+        if (!result.getAffectedUsers().isEmpty()) {
+            eventPublisher.publishEvent(UserChangedEvent.of(result.getAffectedUsers().keySet(), result.getAffectedUsers().values()));
+            auditLog.recordEach(auditType, result.getAffectedUsers().values(), "roleIds=" + request.getRoleIds() + " (bulk)");
+        }
+        return new BulkRoleResponse(result.getAffectedUsers().size(), result.getChangedRows());
+    }
+}
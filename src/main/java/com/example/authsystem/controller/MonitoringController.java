@@ -0,0 +1,91 @@
+package com.example.authsystem.controller;
+
+import com.example.authsystem.audit.AuditLog;
+import com.example.authsystem.dto.AuditStatsResponse;
+import com.example.authsystem.dto.CacheStatsResponse;
+import com.example.authsystem.dto.InvalidationStatsResponse;
+import com.example.authsystem.dto.LoginExecutorStatsResponse;
+import com.example.authsystem.dto.SearchIndexStatsResponse;
+import com.example.authsystem.invalidation.InvalidationBus;
+import com.example.authsystem.security.LoginExecutor;
+import com.example.authsystem.security.UserDetailsCache;
+import com.example.authsystem.security.VerifiedTokenCache;
+import com.example.authsystem.service.MenuTreeService;
+import com.example.authsystem.service.SecondLevelCacheService;
+import com.example.authsystem.service.UserSearchIndex;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/monitoring")
+@Tag(name = "Monitoring", description = "Runtime statistics APIs")
+public class MonitoringController {
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private MenuTreeService menuTreeService;
+
+    @Autowired
+    private LoginExecutor loginExecutor;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private SecondLevelCacheService secondLevelCacheService;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @GetMapping("/caches")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get cache statistics", description = "Get hit, miss and eviction counters of the in-process caches and the Hibernate second-level cache regions")
+    public ResponseEntity<List<CacheStatsResponse>> getCacheStats() {
+        List<CacheStatsResponse> stats = new ArrayList<>(List.of(userDetailsCache.stats(), verifiedTokenCache.stats(), menuTreeService.stats()));
+        stats.addAll(secondLevelCacheService.stats());
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/login-executor")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get login executor statistics", description = "Get queue depth and password verification latency of the login pool")
+    public ResponseEntity<LoginExecutorStatsResponse> getLoginExecutorStats() {
+        return ResponseEntity.ok(loginExecutor.stats());
+    }
+
+    @GetMapping("/search-index")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get search index statistics", description = "Get size, memory estimate and fallback count of the user search index")
+    public ResponseEntity<SearchIndexStatsResponse> getSearchIndexStats() {
+        return ResponseEntity.ok(userSearchIndex.stats());
+    }
+
+    @GetMapping("/audit")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get audit pipeline statistics", description = "Get queue depth, write lag and dropped events of the audit log")
+    public ResponseEntity<AuditStatsResponse> getAuditStats() {
+        return ResponseEntity.ok(auditLog.stats());
+    }
+
+    @GetMapping("/invalidation")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get invalidation bus statistics", description = "Get the change log cursor, poll age and propagation delay of cross-instance cache invalidation")
+    public ResponseEntity<InvalidationStatsResponse> getInvalidationStats() {
+        return ResponseEntity.ok(invalidationBus.stats());
+    }
+}
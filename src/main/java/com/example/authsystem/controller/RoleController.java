@@ -3,22 +3,35 @@ package com.example.authsystem.controller;
 import com.example.authsystem.dto.PaginatedResponse;
 import com.example.authsystem.dto.RoleRequest;
 import com.example.authsystem.dto.RoleResponse;
+import com.example.authsystem.dto.SliceResponse;
 import com.example.authsystem.entity.Role;
+import com.example.authsystem.event.RbacChangedEvent;
+import com.example.authsystem.repository.KeysetCursor;
 import com.example.authsystem.repository.RoleRepository;
+import com.example.authsystem.repository.projection.OwnedNameView;
+import com.example.authsystem.service.EntityVersions;
 import com.example.authsystem.service.RoleService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -26,30 +39,47 @@ import java.util.stream.Collectors;
 @Tag(name = "Role Management", description = "Role management APIs")
 public class RoleController {
 
+    private static final KeysetCursor CURSOR = new KeysetCursor(Map.of(
+            "id", Long::valueOf,
+            "name", value -> value,
+            "status", Integer::valueOf));
+
     @Autowired
     private RoleService roleService;
 
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EntityVersions entityVersions;
+
     @GetMapping
+    @Transactional(readOnly = true)
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Get all roles", description = "Get paginated list of all roles")
-    public ResponseEntity<PaginatedResponse<RoleResponse>> getAllRoles(
+    @Operation(summary = "Get all roles", description = "Get paginated list of all roles. Pass `after` (empty for the first page) "
+            + "to page by cursor instead: the response is a slice without totals and `nextCursor` fetches the next one")
+    public ResponseEntity<?> getAllRoles(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDirection,
             @RequestParam(required = false) String name,
-            @RequestParam(required = false) Integer status) {
+            @RequestParam(required = false) Integer status,
+            @RequestParam(required = false) String after) {
         
         Sort.Direction direction = sortDirection.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        if (after != null) {
+            return getRolesAfter(after, size, sortBy, direction, name, status);
+        }
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
         
         Page<Role> rolePage = roleRepository.findByNameContainingAndStatus(name, status, pageable);
         
         PaginatedResponse<RoleResponse> response = new PaginatedResponse<>(
-                rolePage.getContent().stream().map(RoleResponse::new).collect(java.util.stream.Collectors.toList()),
+                toRoleResponses(rolePage.getContent()),
                 rolePage.getNumber(),
                 rolePage.getSize(),
                 rolePage.getTotalElements(),
@@ -62,11 +92,21 @@ public class RoleController {
     }
 
     @GetMapping("/{id}")
+    @Transactional(readOnly = true)
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Get role by ID", description = "Get role details by role ID")
-    public ResponseEntity<RoleResponse> getRoleById(@PathVariable Long id) {
-        return roleRepository.findById(id)
-                .map(role -> ResponseEntity.ok(new RoleResponse(role)))
+    public ResponseEntity<RoleResponse> getRoleById(@PathVariable Long id, WebRequest webRequest) {
+        EntityVersions.Snapshot version = entityVersions.role(id);
+        String knownETag = entityVersions.knownETag(version);
+        if (knownETag != null && webRequest.checkNotModified(knownETag)) {
+            return null;
+        }
+        return roleRepository.findWithMenusById(id)
+                .map(RoleResponse::new)
+                .map(body -> ResponseEntity.ok()
+                        .eTag(entityVersions.eTag(version, body))
+                        .cacheControl(CacheControl.noCache().cachePrivate())
+                        .body(body))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -84,6 +124,7 @@ public class RoleController {
         role.setStatus(roleRequest.getStatus());
 
         Role savedRole = roleRepository.save(role);
+        eventPublisher.publishEvent(RbacChangedEvent.ofRole(savedRole.getId()));
         return ResponseEntity.ok(new RoleResponse(savedRole));
     }
 
@@ -91,7 +132,7 @@ public class RoleController {
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Update role", description = "Update existing role")
     public ResponseEntity<RoleResponse> updateRole(@PathVariable Long id, @Valid @RequestBody RoleRequest roleRequest) {
-        return roleRepository.findById(id)
+        return roleRepository.findWithMenusById(id)
                 .map(role -> {
                     if (!role.getName().equals(roleRequest.getName()) && roleRepository.existsByName(roleRequest.getName())) {
                         return null;
@@ -102,6 +143,7 @@ public class RoleController {
                     role.setStatus(roleRequest.getStatus());
 
                     Role updatedRole = roleRepository.save(role);
+                    eventPublisher.publishEvent(RbacChangedEvent.ofRole(updatedRole.getId()));
                     return new RoleResponse(updatedRole);
                 }).map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -114,6 +156,7 @@ public class RoleController {
         java.util.Optional<Role> optionalRole = roleRepository.findById(id);
         if (optionalRole.isPresent()) {
             roleRepository.delete(optionalRole.get());
+            eventPublisher.publishEvent(RbacChangedEvent.ofRole(id));
             return ResponseEntity.noContent().build();
         } else {
             return ResponseEntity.notFound().build();
@@ -121,13 +164,57 @@ public class RoleController {
     }
 
     @GetMapping("/active")
+    @Transactional(readOnly = true)
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     @Operation(summary = "Get active roles", description = "Get all active roles")
-    public ResponseEntity<List<RoleResponse>> getActiveRoles() {
+    public ResponseEntity<List<RoleResponse>> getActiveRoles(WebRequest webRequest) {
+        // Read before the query: a write racing with it changes the version, never the other way round
+        EntityVersions.Snapshot version = entityVersions.activeRoles();
+        String knownETag = entityVersions.knownETag(version);
+        if (knownETag != null && webRequest.checkNotModified(knownETag)) {
+            return null;
+        }
         List<Role> roles = roleRepository.findByStatus(1);
+        // Ordered so every instance serializes, and hashes, the same body
         List<RoleResponse> roleResponses = roles.stream()
+                .sorted(Comparator.comparing(Role::getId))
                 .map(RoleResponse::new)
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(roleResponses);
+        return ResponseEntity.ok()
+                .eTag(entityVersions.eTag(version, roleResponses))
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(roleResponses);
+    }
+
+    private ResponseEntity<SliceResponse<RoleResponse>> getRolesAfter(String after, int size, String sortBy,
+                                                                      Sort.Direction direction, String name, Integer status) {
+        if (size < 1 || !CURSOR.isSortable(sortBy)) {
+            return ResponseEntity.badRequest().build();
+        }
+        ScrollPosition position;
+        try {
+            position = CURSOR.decode(after, sortBy, direction);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Window<Role> window = roleRepository.findBy(RoleRepository.nameContainingAndStatus(name, status),
+                query -> query.sortBy(CURSOR.sort(sortBy, direction)).limit(size).scroll(position));
+
+        String nextCursor = window.hasNext() ? CURSOR.encode(window.positionAt(window.size() - 1), sortBy, direction) : null;
+        return ResponseEntity.ok(new SliceResponse<>(toRoleResponses(window.getContent()), size, window.hasNext(), nextCursor));
+    }
+
+    private List<RoleResponse> toRoleResponses(List<Role> roles) {
+        if (roles.isEmpty()) {
+            return List.of();
+        }
+        List<Long> roleIds = roles.stream().map(Role::getId).collect(Collectors.toList());
+        Map<Long, List<String>> menuNames = roleRepository.findMenuNamesByRoleIds(roleIds).stream()
+                .collect(Collectors.groupingBy(OwnedNameView::getOwnerId,
+                        Collectors.mapping(OwnedNameView::getName, Collectors.toList())));
+        return roles.stream()
+                .map(role -> new RoleResponse(role, menuNames.getOrDefault(role.getId(), List.of())))
+                .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
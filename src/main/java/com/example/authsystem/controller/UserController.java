@@ -1,56 +1,130 @@
 package com.example.authsystem.controller;
 
+import com.example.authsystem.audit.AuditEventType;
+import com.example.authsystem.audit.AuditLog;
 import com.example.authsystem.dto.PaginatedResponse;
+import com.example.authsystem.dto.SliceResponse;
+import com.example.authsystem.dto.UserImportResponse;
 import com.example.authsystem.dto.UserRequest;
 import com.example.authsystem.dto.UserResponse;
 import com.example.authsystem.entity.User;
+import com.example.authsystem.event.UserChangedEvent;
+import com.example.authsystem.repository.KeysetCursor;
 import com.example.authsystem.repository.UserRepository;
+import com.example.authsystem.repository.projection.OwnedNameView;
+import com.example.authsystem.security.TokenRevocationStore;
+import com.example.authsystem.service.EntityVersions;
+import com.example.authsystem.service.UserExportService;
+import com.example.authsystem.service.UserImportService;
+import com.example.authsystem.service.UserSearchIndex;
 import com.example.authsystem.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/users")
 @Tag(name = "User Management", description = "User management APIs")
 public class UserController {
 
+    private static final KeysetCursor CURSOR = new KeysetCursor(Map.of(
+            "id", Long::valueOf,
+            "username", value -> value,
+            "status", Integer::valueOf));
+
     @Autowired
     private UserService userService;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserExportService userExportService;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Autowired
+    private EntityVersions entityVersions;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @GetMapping
+    @Transactional(readOnly = true)
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
-    @Operation(summary = "Get all users", description = "Get paginated list of all users")
-    public ResponseEntity<PaginatedResponse<UserResponse>> getAllUsers(
+    @Operation(summary = "Get all users", description = "Get paginated list of all users. Pass `after` (empty for the first page) "
+            + "to page by cursor instead: the response is a slice without totals and `nextCursor` fetches the next one")
+    public ResponseEntity<?> getAllUsers(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDirection,
             @RequestParam(required = false) String username,
-            @RequestParam(required = false) Integer status) {
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) Integer status,
+            @RequestParam(required = false) String after) {
         
         Sort.Direction direction = sortDirection.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Collection<Long> matchingIds = userSearchIndex.search(username, email);
+        if (after != null) {
+            return getUsersAfter(after, size, sortBy, direction, matchingIds != null
+                    ? UserRepository.idInAndStatus(matchingIds, status)
+                    : UserRepository.usernameAndEmailContainingAndStatus(username, email, status));
+        }
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
         
-        Page<User> userPage = userRepository.findByUsernameContainingAndStatus(username, status, pageable);
+        Page<User> userPage = matchingIds != null
+                ? findUsersByIds(matchingIds, status, pageable)
+                : userRepository.searchByFilters(username, email, status, pageable);
         
         PaginatedResponse<UserResponse> response = new PaginatedResponse<>(
-                userPage.getContent().stream().map(UserResponse::new).collect(java.util.stream.Collectors.toList()),
+                toUserResponses(userPage.getContent()),
                 userPage.getNumber(),
                 userPage.getSize(),
                 userPage.getTotalElements(),
@@ -62,12 +136,50 @@ public class UserController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Export users", description = "Stream every user with its role names as `ndjson` or `csv`, "
+            + "gzip-compressed when the client accepts it")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean csv = format.equalsIgnoreCase("csv");
+        if (!csv && !format.equalsIgnoreCase("ndjson")) {
+            return ResponseEntity.badRequest().build();
+        }
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("users." + format.toLowerCase()).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!gzip) {
+            return response.body(out -> userExportService.export(out, csv));
+        }
+        return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(out -> {
+            GZIPOutputStream compressed = new GZIPOutputStream(out, 8192);
+            userExportService.export(compressed, csv);
+            compressed.finish();
+        });
+    }
+
     @GetMapping("/{id}")
+    @Transactional(readOnly = true)
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     @Operation(summary = "Get user by ID", description = "Get user details by user ID")
-    public ResponseEntity<UserResponse> getUserById(@PathVariable Long id) {
-        return userRepository.findById(id)
-                .map(user -> ResponseEntity.ok(new UserResponse(user)))
+    public ResponseEntity<UserResponse> getUserById(@PathVariable Long id, WebRequest webRequest) {
+        EntityVersions.Snapshot version = entityVersions.user(id);
+        String knownETag = entityVersions.knownETag(version);
+        if (knownETag != null && webRequest.checkNotModified(knownETag)) {
+            return null;
+        }
+        return userRepository.findWithRolesById(id)
+                .map(UserResponse::new)
+                .map(body -> ResponseEntity.ok()
+                        .eTag(entityVersions.eTag(version, body))
+                        .cacheControl(CacheControl.noCache().cachePrivate())
+                        .body(body))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -87,19 +199,38 @@ public class UserController {
         user.setPassword(passwordEncoder.encode(userRequest.getPassword()));
 
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.of(savedUser.getId(), savedUser.getUsername()));
         return ResponseEntity.ok(new UserResponse(savedUser));
     }
 
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, UserImportService.TEXT_CSV_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Import users", description = "Create users from a streamed NDJSON body (one user object with optional `roles` per line) "
+            + "or a CSV body with a header line. Invalid rows are reported and skipped without aborting the import")
+    public ResponseEntity<UserImportResponse> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                          InputStream body) throws IOException {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        boolean csv = MediaType.parseMediaType(UserImportService.TEXT_CSV_VALUE).isCompatibleWith(mediaType);
+        try {
+            return ResponseEntity.ok(userImportService.importUsers(body,
+                    mediaType.getCharset() != null ? mediaType.getCharset() : StandardCharsets.UTF_8, csv));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Update user", description = "Update existing user")
     public ResponseEntity<UserResponse> updateUser(@PathVariable Long id, @Valid @RequestBody UserRequest userRequest) {
-        return userRepository.findById(id)
+        return userRepository.findWithRolesById(id)
                 .map(user -> {
                     if (!user.getUsername().equals(userRequest.getUsername()) && userRepository.existsByUsername(userRequest.getUsername())) {
                         return null;
                     }
 
+                    String previousUsername = user.getUsername();
+                    Integer previousStatus = user.getStatus();
                     user.setUsername(userRequest.getUsername());
                     user.setEmail(userRequest.getEmail());
                     user.setPhone(userRequest.getPhone());
@@ -110,6 +241,14 @@ public class UserController {
                     }
 
                     User updatedUser = userRepository.save(user);
+                    eventPublisher.publishEvent(UserChangedEvent.of(updatedUser.getId(), previousUsername, updatedUser.getUsername()));
+                    if (!Objects.equals(previousStatus, updatedUser.getStatus())) {
+                        auditLog.record(AuditEventType.USER_STATUS_CHANGED, updatedUser.getUsername(),
+                                "status " + previousStatus + " -> " + updatedUser.getStatus());
+                    }
+                    if (!updatedUser.isActive()) {
+                        tokenRevocationStore.revokeSubject(previousUsername);
+                    }
                     return new UserResponse(updatedUser);
                 }).map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -121,7 +260,10 @@ public class UserController {
     public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
         java.util.Optional<User> optionalUser = userRepository.findById(id);
         if (optionalUser.isPresent()) {
-            userRepository.delete(optionalUser.get());
+            User user = optionalUser.get();
+            userRepository.delete(user);
+            eventPublisher.publishEvent(UserChangedEvent.of(user.getId(), user.getUsername()));
+            tokenRevocationStore.revokeSubject(user.getUsername());
             return ResponseEntity.noContent().build();
         } else {
             return ResponseEntity.notFound().build();
@@ -132,12 +274,66 @@ public class UserController {
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Update user status", description = "Enable or disable user")
     public ResponseEntity<UserResponse> updateUserStatus(@PathVariable Long id, @RequestParam Integer status) {
-        return userRepository.findById(id)
+        return userRepository.findWithRolesById(id)
                 .map(user -> {
+                    Integer previousStatus = user.getStatus();
                     user.setStatus(status);
                     User updatedUser = userRepository.save(user);
+                    eventPublisher.publishEvent(UserChangedEvent.of(updatedUser.getId(), updatedUser.getUsername()));
+                    auditLog.record(AuditEventType.USER_STATUS_CHANGED, updatedUser.getUsername(),
+                            "status " + previousStatus + " -> " + updatedUser.getStatus());
+                    if (!updatedUser.isActive()) {
+                        tokenRevocationStore.revokeSubject(updatedUser.getUsername());
+                    }
                     return ResponseEntity.ok(new UserResponse(updatedUser));
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<SliceResponse<UserResponse>> getUsersAfter(String after, int size, String sortBy,
+                                                                      Sort.Direction direction, Specification<User> filter) {
+        if (size < 1 || !CURSOR.isSortable(sortBy)) {
+            return ResponseEntity.badRequest().build();
+        }
+        ScrollPosition position;
+        try {
+            position = CURSOR.decode(after, sortBy, direction);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Window<User> window = userRepository.findBy(filter,
+                query -> query.sortBy(CURSOR.sort(sortBy, direction)).limit(size).scroll(position));
+
+        String nextCursor = window.hasNext() ? CURSOR.encode(window.positionAt(window.size() - 1), sortBy, direction) : null;
+        return ResponseEntity.ok(new SliceResponse<>(toUserResponses(window.getContent()), size, window.hasNext(), nextCursor));
+    }
+
+    private Page<User> findUsersByIds(Collection<Long> ids, Integer status, Pageable pageable) {
+        Sort.Order idOrder = pageable.getSort().getOrderFor("id");
+        if (status != null || idOrder == null || pageable.getSort().stream().count() > 1) {
+            return userRepository.findByIdInAndStatus(ids, status, pageable);
+        }
+        // The index returns exact matches, so an id-ordered page and its total come straight from the ids
+        Comparator<Long> order = idOrder.isAscending() ? Comparator.naturalOrder() : Comparator.reverseOrder();
+        List<Long> sortedIds = ids.stream().sorted(order).collect(Collectors.toList());
+        int from = (int) Math.min(pageable.getOffset(), sortedIds.size());
+        int to = Math.min(from + pageable.getPageSize(), sortedIds.size());
+        List<User> content = new ArrayList<>(userRepository.findAllById(sortedIds.subList(from, to)));
+        content.sort(Comparator.comparing(User::getId, order));
+        return new PageImpl<>(content, pageable, sortedIds.size());
+    }
+
+    private List<UserResponse> toUserResponses(List<User> users) {
+        if (users.isEmpty()) {
+            return List.of();
+        }
+        List<Long> userIds = users.stream().map(User::getId).collect(Collectors.toList());
+        Map<Long, List<String>> roleNames = userRepository.findRoleNamesByUserIds(userIds).stream()
+                .collect(Collectors.groupingBy(OwnedNameView::getOwnerId,
+                        Collectors.mapping(OwnedNameView::getName, Collectors.toList())));
+        return users.stream()
+                .map(user -> new UserResponse(user, roleNames.getOrDefault(user.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+}
@@ -1,15 +1,20 @@
 package com.example.authsystem.controller;
 
+import com.example.authsystem.audit.AuditEventType;
+import com.example.authsystem.audit.AuditLog;
 import com.example.authsystem.dto.UserResponse;
 import com.example.authsystem.entity.Role;
 import com.example.authsystem.entity.User;
+import com.example.authsystem.event.UserChangedEvent;
 import com.example.authsystem.repository.RoleRepository;
 import com.example.authsystem.repository.UserRepository;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -26,11 +31,18 @@ public class UserRoleController {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private AuditLog auditLog;
+
     @GetMapping
+    @Transactional(readOnly = true)
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Get user roles", description = "Get all roles assigned to a user")
     public ResponseEntity<List<String>> getUserRoles(@PathVariable Long userId) {
-        return userRepository.findById(userId)
+        return userRepository.findWithRolesById(userId)
                 .map(user -> {
                     List<String> roles = user.getRoles().stream()
                             .map(Role::getName)
@@ -47,12 +59,15 @@ public class UserRoleController {
             @PathVariable Long userId,
             @RequestBody List<Long> roleIds) {
         
-        return userRepository.findById(userId)
+        return userRepository.findWithRolesById(userId)
                 .map(user -> {
                     List<Role> roles = roleRepository.findAllById(roleIds);
                     user.getRoles().clear();
                     user.getRoles().addAll(roles);
                     User savedUser = userRepository.save(user);
+                    eventPublisher.publishEvent(UserChangedEvent.of(savedUser.getId(), savedUser.getUsername()));
+                    auditLog.record(AuditEventType.ROLES_ASSIGNED, savedUser.getUsername(),
+                            "roles=" + roles.stream().map(Role::getName).collect(Collectors.toList()) + " (replaced)");
                     return ResponseEntity.ok(new UserResponse(savedUser));
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -65,15 +80,20 @@ public class UserRoleController {
             @PathVariable Long userId,
             @PathVariable Long roleId) {
         
-        return userRepository.findById(userId)
+        return userRepository.findWithRolesById(userId)
                 .map(user -> {
                     Role role = roleRepository.findById(roleId).orElse(null);
                     if (role == null) {
                         return null;
                     }
                     
-                    user.getRoles().add(role);
+                    // Compare by id: the user and the role were loaded in separate persistence contexts
+                    if (user.getRoles().stream().noneMatch(assigned -> assigned.getId().equals(roleId))) {
+                        user.getRoles().add(role);
+                    }
                     User savedUser = userRepository.save(user);
+                    eventPublisher.publishEvent(UserChangedEvent.of(savedUser.getId(), savedUser.getUsername()));
+                    auditLog.record(AuditEventType.ROLES_ASSIGNED, savedUser.getUsername(), "roles=[" + role.getName() + "]");
                     return new UserResponse(savedUser);
                 }).map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -86,15 +106,17 @@ public class UserRoleController {
             @PathVariable Long userId,
             @PathVariable Long roleId) {
         
-        return userRepository.findById(userId)
+        return userRepository.findWithRolesById(userId)
                 .map(user -> {
                     Role role = roleRepository.findById(roleId).orElse(null);
                     if (role == null) {
                         return null;
                     }
                     
-                    user.getRoles().remove(role);
+                    user.getRoles().removeIf(assigned -> assigned.getId().equals(roleId));
                     User savedUser = userRepository.save(user);
+                    eventPublisher.publishEvent(UserChangedEvent.of(savedUser.getId(), savedUser.getUsername()));
+                    auditLog.record(AuditEventType.ROLES_REMOVED, savedUser.getUsername(), "roles=[" + role.getName() + "]");
                     return new UserResponse(savedUser);
                 }).map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -0,0 +1,239 @@
+package com.example.authsystem.datasource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hands connections for {@code @Transactional(readOnly = true)} work to a replica and everything
+ * else, including reads outside a transaction, to the primary.
+ * <p>
+ * Spring marks a transaction read-only only after the transaction manager has begun it, and
+ * Hibernate takes its connection while beginning. As a {@link LazyConnectionDataSourceProxy} this
+ * class therefore hands out a placeholder and picks the physical connection at the first
+ * statement, when the read-only flag is visible.
+ * <p>
+ * Reads stay on the primary for a while after {@link #markWritten()}, so a response or a cache
+ * reload that follows a write does not read from a replica that has not caught up. A replica that
+ * fails to hand out a connection is skipped for a while and its reads fall back to the primary.
+ */
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    private final DataSource primary;
+
+    private final List<Replica> replicas = new ArrayList<>();
+
+    private final ReplicaSelection selection;
+
+    private final long primaryAfterWriteNanos;
+
+    private final long replicaRetryNanos;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    private volatile long lastWriteNanos;
+
+    private final LongAdder primaryReads = new LongAdder();
+
+    private final LongAdder fallbacks = new LongAdder();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas, List<String> replicaNames,
+                                      ReplicaSelection selection, long primaryAfterWriteInMs, long replicaRetryInMs) {
+        this.primary = primary;
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica(replicaNames.get(i), replicas.get(i)));
+        }
+        this.selection = selection;
+        this.primaryAfterWriteNanos = TimeUnit.MILLISECONDS.toNanos(primaryAfterWriteInMs);
+        this.replicaRetryNanos = TimeUnit.MILLISECONDS.toNanos(replicaRetryInMs);
+        this.lastWriteNanos = System.nanoTime() - primaryAfterWriteNanos;
+        setTargetDataSource(new Router());
+        afterPropertiesSet();
+    }
+
+    /**
+     * Keeps read-only work on the primary for the configured window, e.g. after users or roles
+     * were written on this or another instance.
+     */
+    public void markWritten() {
+        lastWriteNanos = System.nanoTime();
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Read-only connections served by the primary because of a recent write or no healthy replica.
+     */
+    public long getPrimaryReads() {
+        return primaryReads.sum();
+    }
+
+    /**
+     * Read-only connections that fell back to the primary because a replica failed.
+     */
+    public long getFallbacks() {
+        return fallbacks.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeReplicas();
+        if (primary instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    public void closeReplicas() throws IOException {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private Connection readConnection() throws SQLException {
+        long now = System.nanoTime();
+        if (now - lastWriteNanos < primaryAfterWriteNanos) {
+            primaryReads.increment();
+            return primary.getConnection();
+        }
+        Replica replica = select(now);
+        if (replica == null) {
+            primaryReads.increment();
+            return primary.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException ex) {
+            replica.downUntilNanos = now + replicaRetryNanos;
+            replica.failures.increment();
+            fallbacks.increment();
+            return primary.getConnection();
+        }
+    }
+
+    private Replica select(long now) {
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(size, 1));
+        Replica selected = null;
+        for (int i = 0; i < size; i++) {
+            Replica candidate = replicas.get((start + i) % size);
+            if (candidate.downUntilNanos - now > 0) {
+                continue;
+            }
+            if (selection == ReplicaSelection.ROUND_ROBIN) {
+                return candidate;
+            }
+            if (selected == null || candidate.active.get() < selected.active.get()) {
+                selected = candidate;
+            }
+        }
+        return selected;
+    }
+
+    private final class Router extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !replicas.isEmpty()
+                    ? readConnection()
+                    : primary.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+
+        // Pool metrics and the connection guard's meters look for the primary behind the routing
+        @Override
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            return iface.isInstance(this) ? iface.cast(this) : primary.unwrap(iface);
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> iface) throws SQLException {
+            return iface.isInstance(this) || primary.isWrapperFor(iface);
+        }
+    }
+
+    public static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private final AtomicInteger active = new AtomicInteger();
+        private final LongAdder borrowed = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private volatile long downUntilNanos = System.nanoTime();
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Connections currently handed out, the load {@link ReplicaSelection#LEAST_LOADED} compares.
+         */
+        public int getActive() {
+            return active.get();
+        }
+
+        public long getBorrowed() {
+            return borrowed.sum();
+        }
+
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        private Connection getConnection() throws SQLException {
+            Connection connection = dataSource.getConnection();
+            active.incrementAndGet();
+            borrowed.increment();
+            AtomicBoolean closed = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("close") && closed.compareAndSet(false, true)) {
+                            active.decrementAndGet();
+                        }
+                        if (method.getName().equals("equals")) {
+                            return proxy == args[0];
+                        }
+                        if (method.getName().equals("hashCode")) {
+                            return System.identityHashCode(proxy);
+                        }
+                        if (method.getName().equals("unwrap") && ((Class<?>) args[0]).isInstance(connection)) {
+                            return connection;
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getCause();
+                        }
+                    });
+        }
+    }
+}
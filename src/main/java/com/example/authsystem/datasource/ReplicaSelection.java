@@ -0,0 +1,11 @@
+package com.example.authsystem.datasource;
+
+/**
+ * How {@link ReadWriteRoutingDataSource} picks a replica for a read-only transaction.
+ */
+public enum ReplicaSelection {
+    /** Replicas in turn. */
+    ROUND_ROBIN,
+    /** The replica with the fewest connections currently handed out through the router. */
+    LEAST_LOADED
+}
@@ -0,0 +1,131 @@
+package com.example.authsystem.dto;
+
+public class AuditStatsResponse {
+    private int capacity;
+    private int queueDepth;
+    private long lagMs;
+    private long maxLagMs;
+    private long publishedCount;
+    private long writtenCount;
+    private long droppedOverflowCount;
+    private long droppedShutdownCount;
+    private long failedEventCount;
+    private long failedBatchCount;
+    private long batchCount;
+    private double lastBatchMs;
+
+    public AuditStatsResponse() {}
+
+    public AuditStatsResponse(int capacity, int queueDepth, long lagMs, long maxLagMs, long publishedCount,
+                              long writtenCount, long droppedOverflowCount, long droppedShutdownCount,
+                              long failedEventCount, long failedBatchCount, long batchCount, double lastBatchMs) {
+        this.capacity = capacity;
+        this.queueDepth = queueDepth;
+        this.lagMs = lagMs;
+        this.maxLagMs = maxLagMs;
+        this.publishedCount = publishedCount;
+        this.writtenCount = writtenCount;
+        this.droppedOverflowCount = droppedOverflowCount;
+        this.droppedShutdownCount = droppedShutdownCount;
+        this.failedEventCount = failedEventCount;
+        this.failedBatchCount = failedBatchCount;
+        this.batchCount = batchCount;
+        this.lastBatchMs = lastBatchMs;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public void setQueueDepth(int queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    public long getLagMs() {
+        return lagMs;
+    }
+
+    public void setLagMs(long lagMs) {
+        this.lagMs = lagMs;
+    }
+
+    public long getMaxLagMs() {
+        return maxLagMs;
+    }
+
+    public void setMaxLagMs(long maxLagMs) {
+        this.maxLagMs = maxLagMs;
+    }
+
+    public long getPublishedCount() {
+        return publishedCount;
+    }
+
+    public void setPublishedCount(long publishedCount) {
+        this.publishedCount = publishedCount;
+    }
+
+    public long getWrittenCount() {
+        return writtenCount;
+    }
+
+    public void setWrittenCount(long writtenCount) {
+        this.writtenCount = writtenCount;
+    }
+
+    public long getDroppedOverflowCount() {
+        return droppedOverflowCount;
+    }
+
+    public void setDroppedOverflowCount(long droppedOverflowCount) {
+        this.droppedOverflowCount = droppedOverflowCount;
+    }
+
+    public long getDroppedShutdownCount() {
+        return droppedShutdownCount;
+    }
+
+    public void setDroppedShutdownCount(long droppedShutdownCount) {
+        this.droppedShutdownCount = droppedShutdownCount;
+    }
+
+    public long getFailedEventCount() {
+        return failedEventCount;
+    }
+
+    public void setFailedEventCount(long failedEventCount) {
+        this.failedEventCount = failedEventCount;
+    }
+
+    public long getFailedBatchCount() {
+        return failedBatchCount;
+    }
+
+    public void setFailedBatchCount(long failedBatchCount) {
+        this.failedBatchCount = failedBatchCount;
+    }
+
+    public long getBatchCount() {
+        return batchCount;
+    }
+
+    public void setBatchCount(long batchCount) {
+        this.batchCount = batchCount;
+    }
+
+    public double getLastBatchMs() {
+        return lastBatchMs;
+    }
+
+    public void setLastBatchMs(double lastBatchMs) {
+        this.lastBatchMs = lastBatchMs;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.authsystem.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * Roles to add to or remove from a set of users, given either as {@code userIds} or as the
+ * user list filters ({@code username}/{@code email} substrings and {@code status}).
+ */
+public class BulkRoleRequest {
+
+    @NotEmpty(message = "Role ids are required")
+    private List<Long> roleIds;
+
+    private List<Long> userIds;
+
+    private String username;
+
+    private String email;
+
+    private Integer status;
+
+    public BulkRoleRequest() {}
+
+    public List<Long> getRoleIds() {
+        return roleIds;
+    }
+
+    public void setRoleIds(List<Long> roleIds) {
+        this.roleIds = roleIds;
+    }
+
+    public List<Long> getUserIds() {
+        return userIds;
+    }
+
+    public void setUserIds(List<Long> userIds) {
+        this.userIds = userIds;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public void setStatus(Integer status) {
+        this.status = status;
+    }
+
+    public boolean hasFilter() {
+        return username != null || email != null || status != null;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.authsystem.dto;
+
+public class BulkRoleResponse {
+    private int affectedUsers;
+    private int changedRows;
+
+    public BulkRoleResponse() {}
+
+    public BulkRoleResponse(int affectedUsers, int changedRows) {
+        this.affectedUsers = affectedUsers;
+        this.changedRows = changedRows;
+    }
+
+    public int getAffectedUsers() {
+        return affectedUsers;
+    }
+
+    public void setAffectedUsers(int affectedUsers) {
+        this.affectedUsers = affectedUsers;
+    }
+
+    public int getChangedRows() {
+        return changedRows;
+    }
+
+    public void setChangedRows(int changedRows) {
+        this.changedRows = changedRows;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.authsystem.dto;
+
+public class InvalidationStatsResponse {
+    private String bus;
+    private long cursor;
+    private long publishedCount;
+    private long publishFailedCount;
+    private long appliedCount;
+    private long failedPollCount;
+    private int pendingGapCount;
+    private long lastPollAgeMs;
+    private long lastDelayMs;
+    private long maxDelayMs;
+
+    public InvalidationStatsResponse() {}
+
+    public InvalidationStatsResponse(String bus, long cursor, long publishedCount, long publishFailedCount,
+                                     long appliedCount, long failedPollCount, int pendingGapCount,
+                                     long lastPollAgeMs, long lastDelayMs, long maxDelayMs) {
+        this.bus = bus;
+        this.cursor = cursor;
+        this.publishedCount = publishedCount;
+        this.publishFailedCount = publishFailedCount;
+        this.appliedCount = appliedCount;
+        this.failedPollCount = failedPollCount;
+        this.pendingGapCount = pendingGapCount;
+        this.lastPollAgeMs = lastPollAgeMs;
+        this.lastDelayMs = lastDelayMs;
+        this.maxDelayMs = maxDelayMs;
+    }
+
+    public String getBus() {
+        return bus;
+    }
+
+    public void setBus(String bus) {
+        this.bus = bus;
+    }
+
+    public long getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(long cursor) {
+        this.cursor = cursor;
+    }
+
+    public long getPublishedCount() {
+        return publishedCount;
+    }
+
+    public void setPublishedCount(long publishedCount) {
+        this.publishedCount = publishedCount;
+    }
+
+    public long getPublishFailedCount() {
+        return publishFailedCount;
+    }
+
+    public void setPublishFailedCount(long publishFailedCount) {
+        this.publishFailedCount = publishFailedCount;
+    }
+
+    public long getAppliedCount() {
+        return appliedCount;
+    }
+
+    public void setAppliedCount(long appliedCount) {
+        this.appliedCount = appliedCount;
+    }
+
+    public long getFailedPollCount() {
+        return failedPollCount;
+    }
+
+    public void setFailedPollCount(long failedPollCount) {
+        this.failedPollCount = failedPollCount;
+    }
+
+    public int getPendingGapCount() {
+        return pendingGapCount;
+    }
+
+    public void setPendingGapCount(int pendingGapCount) {
+        this.pendingGapCount = pendingGapCount;
+    }
+
+    public long getLastPollAgeMs() {
+        return lastPollAgeMs;
+    }
+
+    public void setLastPollAgeMs(long lastPollAgeMs) {
+        this.lastPollAgeMs = lastPollAgeMs;
+    }
+
+    public long getLastDelayMs() {
+        return lastDelayMs;
+    }
+
+    public void setLastDelayMs(long lastDelayMs) {
+        this.lastDelayMs = lastDelayMs;
+    }
+
+    public long getMaxDelayMs() {
+        return maxDelayMs;
+    }
+
+    public void setMaxDelayMs(long maxDelayMs) {
+        this.maxDelayMs = maxDelayMs;
+    }
+}
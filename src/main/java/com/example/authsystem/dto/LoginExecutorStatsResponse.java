@@ -0,0 +1,101 @@
+package com.example.authsystem.dto;
+
+public class LoginExecutorStatsResponse {
+    private int poolSize;
+    private int activeCount;
+    private int queueDepth;
+    private int queueRemainingCapacity;
+    private long verificationCount;
+    private long rejectedCount;
+    private double averageVerificationMs;
+    private double maxVerificationMs;
+    private double averageQueueWaitMs;
+
+    public LoginExecutorStatsResponse() {}
+
+    public LoginExecutorStatsResponse(int poolSize, int activeCount, int queueDepth, int queueRemainingCapacity,
+                                      long verificationCount, long rejectedCount, double averageVerificationMs,
+                                      double maxVerificationMs, double averageQueueWaitMs) {
+        this.poolSize = poolSize;
+        this.activeCount = activeCount;
+        this.queueDepth = queueDepth;
+        this.queueRemainingCapacity = queueRemainingCapacity;
+        this.verificationCount = verificationCount;
+        this.rejectedCount = rejectedCount;
+        this.averageVerificationMs = averageVerificationMs;
+        this.maxVerificationMs = maxVerificationMs;
+        this.averageQueueWaitMs = averageQueueWaitMs;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    public void setActiveCount(int activeCount) {
+        this.activeCount = activeCount;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public void setQueueDepth(int queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    public int getQueueRemainingCapacity() {
+        return queueRemainingCapacity;
+    }
+
+    public void setQueueRemainingCapacity(int queueRemainingCapacity) {
+        this.queueRemainingCapacity = queueRemainingCapacity;
+    }
+
+    public long getVerificationCount() {
+        return verificationCount;
+    }
+
+    public void setVerificationCount(long verificationCount) {
+        this.verificationCount = verificationCount;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    public void setRejectedCount(long rejectedCount) {
+        this.rejectedCount = rejectedCount;
+    }
+
+    public double getAverageVerificationMs() {
+        return averageVerificationMs;
+    }
+
+    public void setAverageVerificationMs(double averageVerificationMs) {
+        this.averageVerificationMs = averageVerificationMs;
+    }
+
+    public double getMaxVerificationMs() {
+        return maxVerificationMs;
+    }
+
+    public void setMaxVerificationMs(double maxVerificationMs) {
+        this.maxVerificationMs = maxVerificationMs;
+    }
+
+    public double getAverageQueueWaitMs() {
+        return averageQueueWaitMs;
+    }
+
+    public void setAverageQueueWaitMs(double averageQueueWaitMs) {
+        this.averageQueueWaitMs = averageQueueWaitMs;
+    }
+}
@@ -16,15 +16,20 @@ public class RoleResponse {
     private List<String> menus;
 
     public RoleResponse(Role role) {
+        this(role, role.getMenus().stream()
+                .map(menu -> menu.getName())
+                .sorted()
+                .collect(Collectors.toList()));
+    }
+
+    public RoleResponse(Role role, List<String> menus) {
         this.id = role.getId();
         this.name = role.getName();
         this.description = role.getDescription();
         this.status = role.getStatus();
         this.createdAt = role.getCreatedAt();
         this.updatedAt = role.getUpdatedAt();
-        this.menus = role.getMenus().stream()
-                .map(menu -> menu.getName())
-                .collect(Collectors.toList());
+        this.menus = menus;
     }
 
     public Long getId() {
@@ -0,0 +1,101 @@
+package com.example.authsystem.dto;
+
+public class SearchIndexStatsResponse {
+    private boolean enabled;
+    private boolean ready;
+    private boolean overBudget;
+    private int documentCount;
+    private int trigramCount;
+    private long estimatedBytes;
+    private long maxBytes;
+    private long searchCount;
+    private long fallbackCount;
+
+    public SearchIndexStatsResponse() {}
+
+    public SearchIndexStatsResponse(boolean enabled, boolean ready, boolean overBudget, int documentCount,
+                                    int trigramCount, long estimatedBytes, long maxBytes, long searchCount,
+                                    long fallbackCount) {
+        this.enabled = enabled;
+        this.ready = ready;
+        this.overBudget = overBudget;
+        this.documentCount = documentCount;
+        this.trigramCount = trigramCount;
+        this.estimatedBytes = estimatedBytes;
+        this.maxBytes = maxBytes;
+        this.searchCount = searchCount;
+        this.fallbackCount = fallbackCount;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void setReady(boolean ready) {
+        this.ready = ready;
+    }
+
+    public boolean isOverBudget() {
+        return overBudget;
+    }
+
+    public void setOverBudget(boolean overBudget) {
+        this.overBudget = overBudget;
+    }
+
+    public int getDocumentCount() {
+        return documentCount;
+    }
+
+    public void setDocumentCount(int documentCount) {
+        this.documentCount = documentCount;
+    }
+
+    public int getTrigramCount() {
+        return trigramCount;
+    }
+
+    public void setTrigramCount(int trigramCount) {
+        this.trigramCount = trigramCount;
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public void setEstimatedBytes(long estimatedBytes) {
+        this.estimatedBytes = estimatedBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public long getSearchCount() {
+        return searchCount;
+    }
+
+    public void setSearchCount(long searchCount) {
+        this.searchCount = searchCount;
+    }
+
+    public long getFallbackCount() {
+        return fallbackCount;
+    }
+
+    public void setFallbackCount(long fallbackCount) {
+        this.fallbackCount = fallbackCount;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.authsystem.dto;
+
+public class UserImportError {
+    private long line;
+    private String username;
+    private String message;
+
+    public UserImportError() {}
+
+    public UserImportError(long line, String username, String message) {
+        this.line = line;
+        this.username = username;
+        this.message = message;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.authsystem.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class UserImportResponse {
+    private long rows;
+    private long created;
+    private long failed;
+    private List<UserImportError> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+    private long elapsedMs;
+
+    public UserImportResponse() {}
+
+    public long getRows() {
+        return rows;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public void setCreated(long created) {
+        this.created = created;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public List<UserImportError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<UserImportError> errors) {
+        this.errors = errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+}
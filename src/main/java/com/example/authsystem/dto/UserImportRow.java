@@ -0,0 +1,23 @@
+package com.example.authsystem.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One line of a bulk user import: the fields of {@link UserRequest} plus the names of the roles
+ * to assign.
+ */
+public class UserImportRow extends UserRequest {
+
+    private List<String> roles = new ArrayList<>();
+
+    public UserImportRow() {}
+
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    public void setRoles(List<String> roles) {
+        this.roles = roles;
+    }
+}
@@ -17,6 +17,13 @@ public class UserResponse {
     private List<String> roles;
 
     public UserResponse(User user) {
+        this(user, user.getRoles().stream()
+                .map(role -> role.getName())
+                .sorted()
+                .collect(Collectors.toList()));
+    }
+
+    public UserResponse(User user, List<String> roles) {
         this.id = user.getId();
         this.username = user.getUsername();
         this.email = user.getEmail();
@@ -24,9 +31,7 @@ public class UserResponse {
         this.status = user.getStatus();
         this.createdAt = user.getCreatedAt();
         this.updatedAt = user.getUpdatedAt();
-        this.roles = user.getRoles().stream()
-                .map(role -> role.getName())
-                .collect(Collectors.toList());
+        this.roles = roles;
     }
 
     public Long getId() {
@@ -0,0 +1,111 @@
+package com.example.authsystem.entity;
+
+import com.example.authsystem.audit.AuditEventType;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One audited action. Rows are written in batches by {@link com.example.authsystem.audit.AuditLog}
+ * and never updated.
+ */
+@Entity
+@Table(name = "audit_events", indexes = {
+        @Index(name = "idx_audit_events_occurred_at", columnList = "occurred_at"),
+        @Index(name = "idx_audit_events_target", columnList = "target")
+})
+public class AuditEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private AuditEventType type;
+
+    @Column(length = 50)
+    private String actor;
+
+    @Column(length = 100)
+    private String target;
+
+    @Column(length = 500)
+    private String detail;
+
+    @Column(name = "client_ip", length = 45)
+    private String clientIp;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    // Constructors
+    public AuditEvent() {}
+
+    public AuditEvent(AuditEventType type, String actor, String target, String detail, String clientIp,
+                      LocalDateTime occurredAt) {
+        this.type = type;
+        this.actor = actor;
+        this.target = target;
+        this.detail = detail;
+        this.clientIp = clientIp;
+        this.occurredAt = occurredAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public AuditEventType getType() {
+        return type;
+    }
+
+    public void setType(AuditEventType type) {
+        this.type = type;
+    }
+
+    public String getActor() {
+        return actor;
+    }
+
+    public void setActor(String actor) {
+        this.actor = actor;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public void setTarget(String target) {
+        this.target = target;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    public void setDetail(String detail) {
+        this.detail = detail;
+    }
+
+    public String getClientIp() {
+        return clientIp;
+    }
+
+    public void setClientIp(String clientIp) {
+        this.clientIp = clientIp;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.authsystem.event;
+
+/**
+ * Change event that must also reach the caches of other instances. Events published locally are
+ * forwarded to the configured {@code InvalidationBus}; events received from other instances are
+ * published locally again like any other application event.
+ */
+public interface InvalidationEvent {
+}
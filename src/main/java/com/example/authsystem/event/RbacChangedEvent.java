@@ -0,0 +1,39 @@
+package com.example.authsystem.event;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Published after roles, menus or role-menu links were written. An empty role id set means
+ * the change may affect every role.
+ */
+public class RbacChangedEvent implements InvalidationEvent {
+
+    private final Set<Long> roleIds;
+
+    private RbacChangedEvent(Set<Long> roleIds) {
+        this.roleIds = Collections.unmodifiableSet(roleIds);
+    }
+
+    public static RbacChangedEvent ofRoles(Collection<Long> roleIds) {
+        return new RbacChangedEvent(new LinkedHashSet<>(roleIds));
+    }
+
+    public static RbacChangedEvent ofRole(Long roleId) {
+        return new RbacChangedEvent(Set.of(roleId));
+    }
+
+    public static RbacChangedEvent all() {
+        return new RbacChangedEvent(Set.of());
+    }
+
+    public Set<Long> getRoleIds() {
+        return roleIds;
+    }
+
+    public boolean isAllRoles() {
+        return roleIds.isEmpty();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.authsystem.event;
+
+/**
+ * Published after a token, or every token issued to a subject so far, was revoked, so that each
+ * instance adds the revocation to its Bloom filter. {@link #all()} asks for a reload of every
+ * revocation instead.
+ */
+public class TokenRevokedEvent implements InvalidationEvent {
+
+    private final String jti;
+    private final String subject;
+    private final long revokedAt;
+
+    private TokenRevokedEvent(String jti, String subject, long revokedAt) {
+        this.jti = jti;
+        this.subject = subject;
+        this.revokedAt = revokedAt;
+    }
+
+    public static TokenRevokedEvent ofToken(String jti, long revokedAt) {
+        return new TokenRevokedEvent(jti, null, revokedAt);
+    }
+
+    /**
+     * Tokens of {@code subject} issued at or before {@code revokedAt} (epoch milliseconds) are revoked.
+     */
+    public static TokenRevokedEvent ofSubject(String subject, long revokedAt) {
+        return new TokenRevokedEvent(null, subject, revokedAt);
+    }
+
+    public static TokenRevokedEvent all() {
+        return new TokenRevokedEvent(null, null, 0);
+    }
+
+    public String getJti() {
+        return jti;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public long getRevokedAt() {
+        return revokedAt;
+    }
+
+    public boolean isAll() {
+        return jti == null && subject == null;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.authsystem.event;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Published after one or more users were written, so that per-user caches can drop stale entries.
+ */
+public class UserChangedEvent implements InvalidationEvent {
+
+    private final Set<Long> userIds;
+    private final Set<String> usernames;
+    private final boolean allUsers;
+
+    private UserChangedEvent(Set<Long> userIds, Set<String> usernames, boolean allUsers) {
+        this.userIds = Collections.unmodifiableSet(userIds);
+        this.usernames = Collections.unmodifiableSet(usernames);
+        this.allUsers = allUsers;
+    }
+
+    public static UserChangedEvent of(Long userId, String... usernames) {
+        Set<Long> ids = new LinkedHashSet<>();
+        if (userId != null) {
+            ids.add(userId);
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (String username : usernames) {
+            if (username != null) {
+                names.add(username);
+            }
+        }
+        return new UserChangedEvent(ids, names, false);
+    }
+
+    public static UserChangedEvent of(Collection<Long> userIds, Collection<String> usernames) {
+        Set<Long> ids = new LinkedHashSet<>(userIds);
+        ids.removeIf(Objects::isNull);
+        Set<String> names = new LinkedHashSet<>(usernames);
+        names.removeIf(Objects::isNull);
+        return new UserChangedEvent(ids, names, false);
+    }
+
+    public static UserChangedEvent allUsers() {
+        return new UserChangedEvent(Set.of(), Set.of(), true);
+    }
+
+    public Set<Long> getUserIds() {
+        return userIds;
+    }
+
+    public Set<String> getUsernames() {
+        return usernames;
+    }
+
+    public boolean isAllUsers() {
+        return allUsers;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.authsystem.invalidation;
+
+import com.example.authsystem.dto.InvalidationStatsResponse;
+import com.example.authsystem.event.InvalidationEvent;
+
+import java.time.Duration;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Carries cache invalidations between instances of the application. {@link InvalidationForwarder}
+ * hands every locally published {@link InvalidationEvent} to the bus; an implementation delivers
+ * events from other instances by calling {@link InvalidationForwarder#replay}.
+ */
+public interface InvalidationBus {
+
+    /**
+     * Announces a local change to the other instances. Called on the thread that published the
+     * event, inside its transaction if there is one.
+     */
+    void publish(InvalidationEvent event);
+
+    /**
+     * Hands every change made by any instance within the last {@code window} to {@code consumer},
+     * oldest first, with the epoch millisecond it was made at. Lets a starting instance learn about
+     * writes whose effects outlive its caches, such as tokens issued before a user was changed.
+     *
+     * @return {@code false} if the bus does not keep that much history
+     */
+    default boolean history(Duration window, ObjLongConsumer<InvalidationEvent> consumer) {
+        return false;
+    }
+
+    InvalidationStatsResponse stats();
+}
@@ -0,0 +1,40 @@
+package com.example.authsystem.invalidation;
+
+import com.example.authsystem.event.InvalidationEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Forwards locally published invalidation events to the {@link InvalidationBus} and publishes
+ * events received from other instances locally, without sending those back out.
+ */
+@Component
+public class InvalidationForwarder {
+
+    private static final ThreadLocal<Boolean> REPLAYING = new ThreadLocal<>();
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @EventListener
+    public void onInvalidation(InvalidationEvent event) {
+        if (REPLAYING.get() == null) {
+            invalidationBus.publish(event);
+        }
+    }
+
+    /**
+     * Publishes an event received from another instance to the local listeners. Static so that
+     * bus implementations do not depend on the forwarder that depends on them.
+     */
+    public static void replay(ApplicationEventPublisher eventPublisher, InvalidationEvent event) {
+        REPLAYING.set(Boolean.TRUE);
+        try {
+            eventPublisher.publishEvent(event);
+        } finally {
+            REPLAYING.remove();
+        }
+    }
+}
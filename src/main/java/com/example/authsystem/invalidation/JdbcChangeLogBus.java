@@ -0,0 +1,367 @@
+package com.example.authsystem.invalidation;
+
+import com.example.authsystem.dto.InvalidationStatsResponse;
+import com.example.authsystem.event.InvalidationEvent;
+import com.example.authsystem.event.RbacChangedEvent;
+import com.example.authsystem.event.TokenRevokedEvent;
+import com.example.authsystem.event.UserChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Invalidation bus that needs nothing but the shared database. Each local change is inserted into
+ * {@code change_log}, in the publishing transaction when there is one, so other instances never
+ * see a change that was rolled back. A poller thread on every instance reads the rows after its
+ * high-water mark every {@code invalidation.poll-interval} and replays those of other instances.
+ * <p>
+ * Ids are taken at insert but become visible at commit, so a poll can see id n+1 before id n.
+ * Skipped ids are remembered and re-queried until they show up or {@code invalidation.gap-timeout}
+ * passes (the id was rolled back). Propagation delay is measured against the database clock on
+ * both ends. If the poller could not read the log for longer than {@code invalidation.retention},
+ * rows it missed may be purged, so it invalidates everything once.
+ */
+@Component
+@ConditionalOnProperty(name = "invalidation.bus", havingValue = "jdbc")
+public class JdbcChangeLogBus implements InvalidationBus {
+
+    private static final String USER_KIND = "USER";
+    private static final String RBAC_KIND = "RBAC";
+    private static final String TOKEN_KIND = "TOKEN";
+    private static final int MAX_PAYLOAD_LENGTH = 4000;
+    private static final int MAX_GAPS = 1000;
+
+    private static final String INSERT_SQL = "INSERT INTO change_log (origin, kind, payload, created_at)"
+            + " VALUES (?, ?, ?, LOCALTIMESTAMP)";
+    private static final String SELECT_COLUMNS = "SELECT id, origin, kind, payload, created_at, LOCALTIMESTAMP FROM change_log";
+    private static final String POLL_SQL = SELECT_COLUMNS + " WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String HISTORY_SQL = SELECT_COLUMNS + " WHERE created_at >= ? ORDER BY id";
+    private static final String PURGE_SQL = "DELETE FROM change_log WHERE created_at < ?";
+
+    private static final RowMapper<Change> CHANGE_MAPPER = (rs, rowNum) -> new Change(
+            rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4),
+            rs.getTimestamp(5).toLocalDateTime(), rs.getTimestamp(6).toLocalDateTime());
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final String origin = UUID.randomUUID().toString();
+    private final long pollIntervalNanos;
+    private final int batchSize;
+    private final long gapTimeoutNanos;
+    private final Duration retention;
+
+    private Thread poller;
+    private volatile boolean running = true;
+    private volatile long cursor;
+
+    // Ids below the cursor not seen yet, with the time they were noticed; touched by the poller only
+    private final Map<Long, Long> gaps = new LinkedHashMap<>();
+    private volatile int gapCount;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder publishFailed = new LongAdder();
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong failedPolls = new AtomicLong();
+    private volatile long lastPollNanos;
+    private volatile long lastDelayMs;
+    private volatile long maxDelayMs;
+
+    private Timer propagationDelay;
+
+    public JdbcChangeLogBus(@Value("${invalidation.poll-interval:1000}") long pollIntervalInMs,
+                            @Value("${invalidation.batch-size:500}") int batchSize,
+                            @Value("${invalidation.gap-timeout:10000}") long gapTimeoutInMs,
+                            @Value("${invalidation.retention:3600000}") long retentionInMs) {
+        this.pollIntervalNanos = TimeUnit.MILLISECONDS.toNanos(pollIntervalInMs);
+        this.batchSize = batchSize;
+        this.gapTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(gapTimeoutInMs);
+        this.retention = Duration.ofMillis(retentionInMs);
+    }
+
+    @PostConstruct
+    public void init() {
+        propagationDelay = Timer.builder("invalidation.propagation.delay")
+                .description("Time from a change being logged by one instance to another instance applying it")
+                .register(meterRegistry);
+    }
+
+    // Started once the schema exists; earlier changes are already reflected in every cold cache
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        cursor = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM change_log", Long.class);
+        lastPollNanos = System.nanoTime();
+        poller = new Thread(this::pollLoop, "invalidation-poller");
+        poller.setDaemon(true);
+        poller.start();
+    }
+
+    @Override
+    public void publish(InvalidationEvent event) {
+        String kind;
+        String payload;
+        if (event instanceof UserChangedEvent user) {
+            kind = USER_KIND;
+            payload = user.isAllUsers() ? null : toJson(Map.of("ids", user.getUserIds(), "names", user.getUsernames()));
+        } else if (event instanceof RbacChangedEvent rbac) {
+            kind = RBAC_KIND;
+            payload = rbac.isAllRoles() ? null : toJson(Map.of("ids", rbac.getRoleIds()));
+        } else if (event instanceof TokenRevokedEvent token) {
+            kind = TOKEN_KIND;
+            payload = token.isAll() ? null : toJson(token.getJti() != null
+                    ? Map.of("jti", token.getJti(), "revokedAt", token.getRevokedAt())
+                    : Map.of("subject", token.getSubject(), "revokedAt", token.getRevokedAt()));
+        } else {
+            return;
+        }
+        if (payload != null && payload.length() > MAX_PAYLOAD_LENGTH) {
+            // Too many ids for one row; the other instances drop everything of this kind instead
+            payload = null;
+        }
+        try {
+            jdbcTemplate.update(INSERT_SQL, origin, kind, payload);
+            published.increment();
+        } catch (DataAccessException ex) {
+            // The local write already happened; other instances catch up when their cache entries expire
+            publishFailed.increment();
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException ex) {
+            return null;
+        }
+    }
+
+    private void pollLoop() {
+        while (running) {
+            boolean more = false;
+            try {
+                more = poll();
+            } catch (DataAccessException ex) {
+                failedPolls.incrementAndGet();
+            }
+            if (!more) {
+                LockSupport.parkNanos(this, pollIntervalNanos);
+            }
+        }
+    }
+
+    /**
+     * Applies the next batch of changes.
+     *
+     * @return {@code true} if the batch was full and more rows may be waiting
+     */
+    private boolean poll() {
+        long startedAt = System.nanoTime();
+        List<Change> changes = jdbcTemplate.query(POLL_SQL, CHANGE_MAPPER, cursor, batchSize);
+        if (startedAt - lastPollNanos > retention.toNanos()) {
+            // Rows written while the log was unreachable may already be purged
+            InvalidationForwarder.replay(eventPublisher, UserChangedEvent.allUsers());
+            InvalidationForwarder.replay(eventPublisher, RbacChangedEvent.all());
+            InvalidationForwarder.replay(eventPublisher, TokenRevokedEvent.all());
+        }
+        pollGaps(startedAt);
+
+        long position = cursor;
+        for (Change change : changes) {
+            for (long id = position + 1; id < change.id && gaps.size() < MAX_GAPS; id++) {
+                gaps.put(id, startedAt);
+            }
+            apply(change);
+            position = change.id;
+        }
+        cursor = position;
+        gapCount = gaps.size();
+        lastPollNanos = startedAt;
+        return changes.size() == batchSize;
+    }
+
+    private void pollGaps(long now) {
+        Iterator<Long> noticedAt = gaps.values().iterator();
+        while (noticedAt.hasNext()) {
+            if (now - noticedAt.next() > gapTimeoutNanos) {
+                noticedAt.remove();
+            }
+        }
+        if (gaps.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(gaps.keySet());
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        for (Change change : jdbcTemplate.query(SELECT_COLUMNS + " WHERE id IN (" + placeholders + ")",
+                CHANGE_MAPPER, ids.toArray())) {
+            gaps.remove(change.id);
+            apply(change);
+        }
+    }
+
+    private void apply(Change change) {
+        if (origin.equals(change.origin)) {
+            return;
+        }
+        InvalidationEvent event;
+        try {
+            event = decode(change.kind, change.payload);
+        } catch (JsonProcessingException ex) {
+            event = null;
+        }
+        if (event == null) {
+            // Written by a newer version or unreadable; skipped rather than blocking the log
+            return;
+        }
+        InvalidationForwarder.replay(eventPublisher, event);
+        applied.incrementAndGet();
+
+        long delayMs = Math.max(0, Duration.between(change.createdAt, change.databaseNow).toMillis());
+        propagationDelay.record(delayMs, TimeUnit.MILLISECONDS);
+        lastDelayMs = delayMs;
+        if (delayMs > maxDelayMs) {
+            maxDelayMs = delayMs;
+        }
+    }
+
+    private InvalidationEvent decode(String kind, String payload) throws JsonProcessingException {
+        JsonNode json = payload != null ? objectMapper.readTree(payload) : null;
+        if (USER_KIND.equals(kind)) {
+            if (json == null) {
+                return UserChangedEvent.allUsers();
+            }
+            List<Long> ids = new ArrayList<>();
+            json.path("ids").forEach(id -> ids.add(id.asLong()));
+            List<String> names = new ArrayList<>();
+            json.path("names").forEach(name -> names.add(name.asText()));
+            return UserChangedEvent.of(ids, names);
+        }
+        if (RBAC_KIND.equals(kind)) {
+            if (json == null) {
+                return RbacChangedEvent.all();
+            }
+            List<Long> ids = new ArrayList<>();
+            json.path("ids").forEach(id -> ids.add(id.asLong()));
+            return RbacChangedEvent.ofRoles(ids);
+        }
+        if (TOKEN_KIND.equals(kind)) {
+            if (json == null) {
+                return TokenRevokedEvent.all();
+            }
+            long revokedAt = json.path("revokedAt").asLong();
+            return json.hasNonNull("jti")
+                    ? TokenRevokedEvent.ofToken(json.get("jti").asText(), revokedAt)
+                    : TokenRevokedEvent.ofSubject(json.path("subject").asText(), revokedAt);
+        }
+        return null;
+    }
+
+    @Override
+    public boolean history(Duration window, ObjLongConsumer<InvalidationEvent> consumer) {
+        if (window.compareTo(retention) > 0) {
+            return false;
+        }
+        for (Change change : jdbcTemplate.query(HISTORY_SQL, CHANGE_MAPPER,
+                Timestamp.valueOf(LocalDateTime.now().minus(window)))) {
+            InvalidationEvent event;
+            try {
+                event = decode(change.kind, change.payload);
+            } catch (JsonProcessingException ex) {
+                event = null;
+            }
+            if (event != null) {
+                consumer.accept(event, change.createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            }
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${invalidation.purge-interval:600000}", initialDelayString = "${invalidation.purge-interval:600000}")
+    public void purge() {
+        jdbcTemplate.update(PURGE_SQL, Timestamp.valueOf(LocalDateTime.now().minus(retention)));
+    }
+
+    @Override
+    public InvalidationStatsResponse stats() {
+        long lastPoll = lastPollNanos;
+        return new InvalidationStatsResponse(
+                "jdbc",
+                cursor,
+                published.sum(),
+                publishFailed.sum(),
+                applied.get(),
+                failedPolls.get(),
+                gapCount,
+                lastPoll != 0 ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastPoll) : -1,
+                lastDelayMs,
+                maxDelayMs
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (poller != null) {
+            LockSupport.unpark(poller);
+            poller.join(TimeUnit.NANOSECONDS.toMillis(pollIntervalNanos) + 1000);
+        }
+    }
+
+    private static final class Change {
+        private final long id;
+        private final String origin;
+        private final String kind;
+        private final String payload;
+        private final LocalDateTime createdAt;
+        private final LocalDateTime databaseNow;
+
+        Change(long id, String origin, String kind, String payload, LocalDateTime createdAt, LocalDateTime databaseNow) {
+            this.id = id;
+            this.origin = origin;
+            this.kind = kind;
+            this.payload = payload;
+            this.createdAt = createdAt;
+            this.databaseNow = databaseNow;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.authsystem.invalidation;
+
+import com.example.authsystem.dto.InvalidationStatsResponse;
+import com.example.authsystem.event.InvalidationEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Single-instance deployments: local events already reached every cache, so nothing is sent.
+ */
+@Component
+@ConditionalOnProperty(name = "invalidation.bus", havingValue = "local", matchIfMissing = true)
+public class LocalInvalidationBus implements InvalidationBus {
+
+    private final LongAdder published = new LongAdder();
+
+    @Override
+    public void publish(InvalidationEvent event) {
+        published.increment();
+    }
+
+    @Override
+    public InvalidationStatsResponse stats() {
+        return new InvalidationStatsResponse("local", 0, published.sum(), 0, 0, 0, 0, -1, 0, 0);
+    }
+}
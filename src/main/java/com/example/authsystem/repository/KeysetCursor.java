@@ -0,0 +1,71 @@
+package com.example.authsystem.repository;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Opaque {@code after} cursor for keyset pagination over {@code (sortBy, id)}.
+ * <p>
+ * The cursor carries the sort column and direction it was issued for, so it cannot be replayed
+ * against a different ordering. Only non-null columns are sortable, because a seek predicate
+ * cannot step over NULL keys.
+ */
+public final class KeysetCursor {
+
+    private static final String ID = "id";
+    private static final String SEPARATOR = "|";
+
+    private final Map<String, Function<String, ?>> sortableColumns;
+
+    public KeysetCursor(Map<String, Function<String, ?>> sortableColumns) {
+        this.sortableColumns = sortableColumns;
+    }
+
+    public boolean isSortable(String sortBy) {
+        return sortableColumns.containsKey(sortBy);
+    }
+
+    /**
+     * Orders by the sort column with {@code id} in the same direction as the tie-breaker, so an
+     * index on {@code (column, id)} can serve the seek.
+     */
+    public Sort sort(String sortBy, Sort.Direction direction) {
+        return ID.equals(sortBy) ? Sort.by(direction, ID) : Sort.by(direction, sortBy, ID);
+    }
+
+    /**
+     * Decodes a cursor issued by {@link #encode}; an empty cursor starts at the first row.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for another ordering
+     */
+    public KeysetScrollPosition decode(String cursor, String sortBy, Sort.Direction direction) {
+        if (cursor == null || cursor.isEmpty()) {
+            return ScrollPosition.keyset();
+        }
+        String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                .split("\\" + SEPARATOR, 4);
+        if (parts.length != 4 || !parts[0].equals(sortBy) || !parts[1].equals(direction.name())) {
+            throw new IllegalArgumentException("Cursor does not match sortBy/sortDirection");
+        }
+        Map<String, Object> keys = new LinkedHashMap<>();
+        if (!ID.equals(sortBy)) {
+            keys.put(sortBy, sortableColumns.get(sortBy).apply(parts[3]));
+        }
+        keys.put(ID, Long.valueOf(parts[2]));
+        return ScrollPosition.forward(keys);
+    }
+
+    public String encode(ScrollPosition position, String sortBy, Sort.Direction direction) {
+        Map<String, Object> keys = ((KeysetScrollPosition) position).getKeys();
+        Object value = ID.equals(sortBy) ? "" : keys.get(sortBy);
+        String raw = sortBy + SEPARATOR + direction.name() + SEPARATOR + keys.get(ID) + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,8 +1,12 @@
 package com.example.authsystem.repository;
 
+import com.example.authsystem.config.SecondLevelCacheConfig;
 import com.example.authsystem.entity.Menu;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -13,6 +17,10 @@ public interface MenuRepository extends JpaRepository<Menu, Long> {
     
     List<Menu> findByParentIdOrderBySortOrderAsc(Long parentId);
     
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.RBAC_QUERY_REGION)
+    })
     List<Menu> findByStatusOrderBySortOrderAsc(Integer status);
     
     List<Menu> findByMenuTypeOrderBySortOrderAsc(Integer menuType);
@@ -20,6 +28,10 @@ public interface MenuRepository extends JpaRepository<Menu, Long> {
     @Query("SELECT DISTINCT m FROM Menu m JOIN m.roles r JOIN r.users u WHERE u.username = :username AND m.status = 1 ORDER BY m.parentId, m.sortOrder")
     List<Menu> findByUsername(@Param("username") String username);
     
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.RBAC_QUERY_REGION)
+    })
     @Query("SELECT DISTINCT m FROM Menu m JOIN m.roles r WHERE r.id IN :roleIds AND m.status = 1 ORDER BY m.parentId, m.sortOrder")
     List<Menu> findByRoleIds(@Param("roleIds") List<Long> roleIds);
     
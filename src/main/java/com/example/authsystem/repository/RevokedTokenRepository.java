@@ -0,0 +1,29 @@
+package com.example.authsystem.repository;
+
+import com.example.authsystem.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    boolean existsByJti(String jti);
+
+    @Query("SELECT MAX(t.revokedAt) FROM RevokedToken t WHERE t.subject = :subject")
+    LocalDateTime findLatestRevocationOfSubject(@Param("subject") String subject);
+
+    @Query("SELECT t.jti, t.subject FROM RevokedToken t WHERE t.expiresAt > :now")
+    List<Object[]> findActiveKeys(@Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RevokedToken t WHERE t.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,21 +1,33 @@
 package com.example.authsystem.repository;
 
+import com.example.authsystem.config.SecondLevelCacheConfig;
 import com.example.authsystem.entity.Role;
+import com.example.authsystem.repository.projection.OwnedNameView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface RoleRepository extends JpaRepository<Role, Long> {
+public interface RoleRepository extends JpaRepository<Role, Long>, JpaSpecificationExecutor<Role> {
     
     Role findByName(String name);
     
     boolean existsByName(String name);
+
+    long countByIdIn(Collection<Long> ids);
     
     @Query("SELECT r FROM Role r WHERE (:name IS NULL OR r.name LIKE %:name%) AND (:status IS NULL OR r.status = :status)")
     Page<Role> findByNameContainingAndStatus(
@@ -23,5 +35,28 @@ public interface RoleRepository extends JpaRepository<Role, Long> {
             @Param("status") Integer status, 
             Pageable pageable);
     
+    @EntityGraph(attributePaths = "menus")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.RBAC_QUERY_REGION)
+    })
     List<Role> findByStatus(Integer status);
+
+    @EntityGraph(attributePaths = "menus")
+    Optional<Role> findWithMenusById(Long id);
+
+    @Query("SELECT r.id AS ownerId, m.name AS name FROM Role r JOIN r.menus m WHERE r.id IN :roleIds")
+    List<OwnedNameView> findMenuNamesByRoleIds(@Param("roleIds") Collection<Long> roleIds);
+
+    @Query("SELECT r.id, r.name, m.id FROM Role r LEFT JOIN r.menus m")
+    List<Object[]> findRoleMenuIds();
+
+    @Query("SELECT r.id, r.name, m.id FROM Role r LEFT JOIN r.menus m WHERE r.id IN :roleIds")
+    List<Object[]> findRoleMenuIdsByRoleIds(@Param("roleIds") Collection<Long> roleIds);
+
+    static Specification<Role> nameContainingAndStatus(String name, Integer status) {
+        return (root, query, cb) -> cb.and(
+                name != null ? cb.like(root.get("name"), "%" + name + "%") : cb.conjunction(),
+                status != null ? cb.equal(root.get("status"), status) : cb.conjunction());
+    }
 }
\ No newline at end of file
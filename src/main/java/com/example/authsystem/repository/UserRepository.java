@@ -1,27 +1,75 @@
 package com.example.authsystem.repository;
 
 import com.example.authsystem.entity.User;
+import com.example.authsystem.repository.projection.OwnedNameView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
     
     Optional<User> findByUsername(String username);
+
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findWithRolesByUsername(String username);
+
+    @Query("SELECT u.password, u.status, r.id FROM User u LEFT JOIN u.roles r WHERE u.username = :username")
+    List<Object[]> findCredentialsAndRoleIdsByUsername(@Param("username") String username);
+
+    @EntityGraph(attributePaths = {"roles", "roles.menus"})
+    Optional<User> findWithRolesAndMenusByUsername(String username);
+
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findWithRolesById(Long id);
+
+    @Query("SELECT u.id AS ownerId, r.name AS name FROM User u JOIN u.roles r WHERE u.id IN :userIds")
+    List<OwnedNameView> findRoleNamesByUserIds(@Param("userIds") Collection<Long> userIds);
     
     boolean existsByUsername(String username);
     
     boolean existsByEmail(String email);
+
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
     
-    @Query("SELECT u FROM User u WHERE (:username IS NULL OR u.username LIKE %:username%) AND (:status IS NULL OR u.status = :status)")
-    Page<User> findByUsernameContainingAndStatus(
+    @Query("SELECT u FROM User u WHERE (:username IS NULL OR LOWER(u.username) LIKE LOWER(CONCAT('%', :username, '%'))) AND (:email IS NULL OR LOWER(u.email) LIKE LOWER(CONCAT('%', :email, '%'))) AND (:status IS NULL OR u.status = :status)")
+    Page<User> searchByFilters(
             @Param("username") String username, 
+            @Param("email") String email,
             @Param("status") Integer status, 
             Pageable pageable);
+
+    @Query("SELECT u FROM User u WHERE u.id IN :ids AND (:status IS NULL OR u.status = :status)")
+    Page<User> findByIdInAndStatus(@Param("ids") Collection<Long> ids, @Param("status") Integer status, Pageable pageable);
+
+    @Query("SELECT u.id, u.username, u.email FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Object[]> findSearchFieldsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT u.id, u.username, u.email FROM User u WHERE u.id IN :ids")
+    List<Object[]> findSearchFieldsByIds(@Param("ids") Collection<Long> ids);
+
+    static Specification<User> usernameAndEmailContainingAndStatus(String username, String email, Integer status) {
+        return (root, query, cb) -> cb.and(
+                username != null ? cb.like(cb.lower(root.get("username")), "%" + username.toLowerCase(Locale.ROOT) + "%") : cb.conjunction(),
+                email != null ? cb.like(cb.lower(root.get("email")), "%" + email.toLowerCase(Locale.ROOT) + "%") : cb.conjunction(),
+                status != null ? cb.equal(root.get("status"), status) : cb.conjunction());
+    }
+
+    static Specification<User> idInAndStatus(Collection<Long> ids, Integer status) {
+        return (root, query, cb) -> cb.and(
+                root.get("id").in(ids),
+                status != null ? cb.equal(root.get("status"), status) : cb.conjunction());
+    }
 }
\ No newline at end of file
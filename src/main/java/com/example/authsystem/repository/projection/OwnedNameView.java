@@ -0,0 +1,11 @@
+package com.example.authsystem.repository.projection;
+
+/**
+ * A name attached to an owning row, e.g. a role name of a user or a menu name of a role.
+ */
+public interface OwnedNameView {
+
+    Long getOwnerId();
+
+    String getName();
+}
@@ -0,0 +1,67 @@
+package com.example.authsystem.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Principal that carries the user's menu permissions as a {@link PermissionSet} next to the
+ * regular string authorities, so {@link PermissionSetEvaluator} and the {@code hasRole}/{@code hasAuthority}
+ * expressions of {@link PermissionSetExpressionHandler} can answer checks with a bit test.
+ */
+public class AuthorizedUser extends User {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final PermissionSet permissions;
+
+    private final Set<String> roles = new HashSet<>();
+
+    private final long catalogVersion;
+
+    public AuthorizedUser(String username, String password, Collection<? extends GrantedAuthority> authorities,
+                          PermissionSet permissions, long catalogVersion) {
+        super(username, password, authorities);
+        this.permissions = permissions;
+        this.catalogVersion = catalogVersion;
+        for (GrantedAuthority authority : getAuthorities()) {
+            if (authority.getAuthority().startsWith(ROLE_PREFIX)) {
+                roles.add(authority.getAuthority());
+            }
+        }
+    }
+
+    public PermissionSet getPermissions() {
+        return permissions;
+    }
+
+    /**
+     * Version of the {@link PermissionCatalog} the permission ids were assigned by.
+     */
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    /**
+     * Authority check without scanning the authority list: a set lookup for {@code ROLE_}
+     * authorities and a bit test for permissions while the ids still belong to {@code catalog}.
+     */
+    public boolean hasAuthority(String authority, PermissionCatalog.Snapshot catalog) {
+        if (authority.startsWith(ROLE_PREFIX)) {
+            return roles.contains(authority);
+        }
+        // Ids are only comparable within one catalog version
+        if (catalogVersion == catalog.getVersion()) {
+            return permissions.contains(catalog.idOf(authority));
+        }
+        for (GrantedAuthority granted : getAuthorities()) {
+            if (authority.equals(granted.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
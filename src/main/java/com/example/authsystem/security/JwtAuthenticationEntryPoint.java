@@ -1,7 +1,8 @@
 package com.example.authsystem.security;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
 import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.MediaType;
@@ -10,26 +11,55 @@ import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.util.HashMap;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Writes the 401 body from pre-encoded JSON fragments. Only the path is escaped per request;
+ * Spring Security's handful of messages are encoded once.
+ */
 @Component
 public class JwtAuthenticationEntryPoint implements AuthenticationEntryPoint {
 
+    private static final int MAX_MESSAGES = 64;
+
+    private static final byte[] PREFIX = "{\"status\":401,\"error\":\"Unauthorized\",\"message\":"
+            .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] PATH = ",\"path\":\"".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SUFFIX = "\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.UTF_8);
+
+    private final Map<String, byte[]> messages = new ConcurrentHashMap<>();
+
     @Override
-    public void commence(HttpServletRequest request, HttpServletResponse response, 
+    public void commence(HttpServletRequest request, HttpServletResponse response,
                          AuthenticationException authException) throws IOException, ServletException {
-        
+
         response.setContentType(MediaType.APPLICATION_JSON_VALUE);
         response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-        
-        Map<String, Object> body = new HashMap<>();
-        body.put("status", HttpServletResponse.SC_UNAUTHORIZED);
-        body.put("error", "Unauthorized");
-        body.put("message", authException.getMessage());
-        body.put("path", request.getRequestURI());
-        
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.writeValue(response.getOutputStream(), body);
+
+        ServletOutputStream out = response.getOutputStream();
+        out.write(PREFIX);
+        out.write(message(authException.getMessage()));
+        out.write(PATH);
+        out.write(JsonStringEncoder.getInstance().quoteAsUTF8(request.getRequestURI()));
+        out.write(SUFFIX);
+    }
+
+    private byte[] message(String message) {
+        if (message == null) {
+            return NULL;
+        }
+        byte[] encoded = messages.get(message);
+        if (encoded == null) {
+            encoded = ("\"" + new String(JsonStringEncoder.getInstance().quoteAsString(message)) + "\"")
+                    .getBytes(StandardCharsets.UTF_8);
+            // Bounded in case a provider puts request data into its messages
+            if (messages.size() < MAX_MESSAGES) {
+                messages.put(message, encoded);
+            }
+        }
+        return encoded;
     }
-}
\ No newline at end of file
+}
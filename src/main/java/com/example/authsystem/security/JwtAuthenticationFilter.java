@@ -1,55 +1,190 @@
 package com.example.authsystem.security;
 
 import com.example.authsystem.service.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.springframework.stereotype.Component;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    // permitAll routes that never read the authentication; /api/auth/me does and stays filtered
+    private static final RequestMatcher PUBLIC_ROUTES = new OrRequestMatcher(
+            new AntPathRequestMatcher("/api/auth/login"),
+            new AntPathRequestMatcher("/api/auth/refresh"),
+            new AntPathRequestMatcher("/api/auth/logout"),
+            new AntPathRequestMatcher("/swagger-ui/**"),
+            new AntPathRequestMatcher("/swagger-ui.html"),
+            new AntPathRequestMatcher("/api-docs/**"),
+            new AntPathRequestMatcher("/v3/api-docs/**"),
+            new AntPathRequestMatcher("/h2-console/**"),
+            new AntPathRequestMatcher("/actuator/health")
+    );
+
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
 
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private StatelessAuthorizationResolver statelessAuthorizationResolver;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${jwt.failure-log-interval:60000}")
+    private long failureLogIntervalInMs;
+
+    private Timer extractTimer;
+    private Timer verifyTimer;
+    private Timer loadUserTimer;
+    private Timer authoritiesTimer;
+
+    private Counter statelessUsers;
+    private Counter cachedUsers;
+    private Counter loadedUsers;
+    private Counter failures;
+
+    private final AtomicLong nextFailureLogNanos = new AtomicLong(System.nanoTime());
+    private final LongAdder suppressedFailures = new LongAdder();
+
+    @PostConstruct
+    public void initMetrics() {
+        extractTimer = stageTimer("extract");
+        verifyTimer = stageTimer("verify");
+        loadUserTimer = stageTimer("load_user");
+        authoritiesTimer = stageTimer("authorities");
+        statelessUsers = userSourceCounter("stateless");
+        cachedUsers = userSourceCounter("cache");
+        loadedUsers = userSourceCounter("database");
+        failures = Counter.builder("auth.filter.failures")
+                .description("Requests whose verified token could not be turned into an authentication")
+                .register(meterRegistry);
+    }
+
+    private Timer stageTimer(String stage) {
+        return Timer.builder("auth.filter.stage")
+                .description("Time spent in each stage of JWT request authentication")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    private Counter userSourceCounter(String source) {
+        return Counter.builder("auth.filter.user.source")
+                .description("Where authenticated requests got their user from")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return PUBLIC_ROUTES.matches(request);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         
         try {
+            long startedAt = System.nanoTime();
             String jwt = getJwtFromRequest(request);
+            long extractedAt = record(extractTimer, startedAt);
             
-            if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
-                String username = jwtTokenProvider.getUsernameFromToken(jwt);
-                
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            boolean hasToken = StringUtils.hasText(jwt);
+            Claims claims = hasToken ? jwtTokenProvider.verifyToken(jwt) : null;
+            long verifiedAt = hasToken ? record(verifyTimer, extractedAt) : extractedAt;
+            if (claims != null) {
+                UserDetails userDetails = statelessAuthorizationResolver.resolve(claims);
+                if (userDetails != null) {
+                    statelessUsers.increment();
+                } else {
+                    userDetails = loadUserDetails(claims.getSubject());
+                }
+                long loadedAt = record(loadUserTimer, verifiedAt);
+
                 UsernamePasswordAuthenticationToken authentication = 
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+                record(authoritiesTimer, loadedAt);
             }
         } catch (Exception ex) {
-            logger.error("Could not set user authentication in security context", ex);
+            logFailure(ex);
         }
         
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Logs at most one failure per {@code jwt.failure-log-interval}, with the number skipped since
+     * the last one; stack traces only at debug level.
+     */
+    private void logFailure(Exception ex) {
+        failures.increment();
+        long now = System.nanoTime();
+        long next = nextFailureLogNanos.get();
+        if (now - next < 0
+                || !nextFailureLogNanos.compareAndSet(next, now + TimeUnit.MILLISECONDS.toNanos(failureLogIntervalInMs))) {
+            suppressedFailures.increment();
+            return;
+        }
+        long suppressed = suppressedFailures.sumThenReset();
+        logger.warn("Could not set user authentication in security context: " + ex
+                + (suppressed > 0 ? " (" + suppressed + " more since the last report)" : ""));
+        if (logger.isDebugEnabled()) {
+            logger.debug("Authentication failure", ex);
+        }
+    }
+
+    private UserDetails loadUserDetails(String username) {
+        UserDetails userDetails = userDetailsCache.getUserFromCache(username);
+        if (userDetails == null) {
+            long generation = userDetailsCache.generation();
+            userDetails = userDetailsService.loadUserByUsername(username);
+            userDetailsCache.putUserInCache(userDetails, generation);
+            loadedUsers.increment();
+        } else {
+            cachedUsers.increment();
+        }
+        return userDetails;
+    }
+
+    // Records the time since startedAt and returns the current time as the start of the next stage
+    private static long record(Timer timer, long startedAt) {
+        long now = System.nanoTime();
+        timer.record(now - startedAt, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -1,65 +1,265 @@
 package com.example.authsystem.security;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Base64;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtTokenProvider {
 
+    private static final String TYPE_CLAIM = "typ";
+    private static final String REFRESH_TYPE = "refresh";
+    private static final int MAX_TOKEN_LENGTH = 8192;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expiration}")
     private int jwtExpirationInMs;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Value("${jwt.refresh-expiration}")
+    private long refreshExpirationInMs;
+
+    @Autowired
+    private StatelessAuthorizationResolver statelessAuthorizationResolver;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private SecretKey signingKey;
+
+    private JwtParser jwtParser;
+
+    private Counter signatureFailures;
+    private Counter malformedFailures;
+    private Counter expiredFailures;
+    private Counter unsupportedFailures;
+    private Counter emptyFailures;
+    private Counter invalidFailures;
+    private Counter revokedFailures;
+    private Counter wrongTypeFailures;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+
+        signatureFailures = failureCounter("signature");
+        malformedFailures = failureCounter("malformed");
+        expiredFailures = failureCounter("expired");
+        unsupportedFailures = failureCounter("unsupported");
+        emptyFailures = failureCounter("empty");
+        invalidFailures = failureCounter("invalid");
+        revokedFailures = failureCounter("revoked");
+        wrongTypeFailures = failureCounter("wrong_type");
+    }
+
+    private Counter failureCounter(String type) {
+        return Counter.builder("auth.token.failures")
+                .description("Rejected JWTs by failure type")
+                .tag("type", type)
+                .register(meterRegistry);
     }
 
     public String generateToken(Authentication authentication) {
-        UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
+        return generateToken((UserDetails) authentication.getPrincipal());
+    }
+
+    public String generateToken(UserDetails userPrincipal) {
         Date expiryDate = new Date(System.currentTimeMillis() + jwtExpirationInMs);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder();
+        if (statelessAuthorizationResolver.isEnabled()) {
+            builder.addClaims(statelessAuthorizationResolver.buildClaims(userPrincipal));
+        }
+        return builder
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userPrincipal.getUsername())
                 .setIssuedAt(new Date())
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
+    /**
+     * Long-lived token that can only be exchanged for a new access token at {@code /api/auth/refresh}.
+     */
+    public String generateRefreshToken(String username) {
+        return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject(username)
+                .claim(TYPE_CLAIM, REFRESH_TYPE)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + refreshExpirationInMs))
+                .signWith(signingKey)
+                .compact();
     }
 
-    public boolean validateToken(String authToken) {
+    /**
+     * Verifies an access token and returns its claims, or {@code null} if the token is invalid,
+     * expired, revoked or a refresh token.
+     */
+    public Claims verifyToken(String token) {
+        Claims claims = verify(token);
+        if (claims != null && REFRESH_TYPE.equals(claims.get(TYPE_CLAIM))) {
+            wrongTypeFailures.increment();
+            return null;
+        }
+        return claims;
+    }
+
+    public Claims verifyRefreshToken(String token) {
+        Claims claims = verify(token);
+        if (claims != null && !REFRESH_TYPE.equals(claims.get(TYPE_CLAIM))) {
+            wrongTypeFailures.increment();
+            return null;
+        }
+        return claims;
+    }
+
+    /**
+     * Verifies the token once and returns its claims, or {@code null} if the token is invalid or
+     * expired. Tokens verified before are answered from {@link VerifiedTokenCache}; revocation is
+     * checked on every call since it can happen while the token is cached.
+     * <p>
+     * Garbage is rejected by a character scan before the token is hashed, and expired tokens by a
+     * look at {@code exp} before the signature is checked, so neither costs a digest, an HMAC or
+     * an exception.
+     */
+    private Claims verify(String token) {
+        if (token == null || token.isEmpty()) {
+            emptyFailures.increment();
+            return null;
+        }
+        if (!isWellFormed(token)) {
+            malformedFailures.increment();
+            return null;
+        }
+
+        ByteBuffer key = verifiedTokenCache.keyOf(token);
+        Claims claims = verifiedTokenCache.get(key);
+        if (claims == null) {
+            if (isExpired(token)) {
+                expiredFailures.increment();
+                return null;
+            }
+            claims = parse(token);
+            if (claims == null) {
+                return null;
+            }
+            verifiedTokenCache.put(key, claims);
+        }
+
+        if (tokenRevocationStore.isRevoked(claims)) {
+            revokedFailures.increment();
+            return null;
+        }
+        return claims;
+    }
+
+    /**
+     * Whether the token looks like a signed compact JWS: three non-empty base64url segments of
+     * decodable length and a sane total length.
+     */
+    private static boolean isWellFormed(String token) {
+        if (token.length() > MAX_TOKEN_LENGTH) {
+            return false;
+        }
+        int dots = 0;
+        int segmentLength = 0;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                if (++dots > 2 || segmentLength == 0 || segmentLength % 4 == 1) {
+                    return false;
+                }
+                segmentLength = 0;
+            } else if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_') {
+                segmentLength++;
+            } else {
+                return false;
+            }
+        }
+        return dots == 2 && segmentLength > 0 && segmentLength % 4 != 1;
+    }
+
+    /**
+     * Reads {@code exp} from the unverified payload. Anything unexpected is left to the full parse.
+     */
+    private static boolean isExpired(String token) {
+        int start = token.indexOf('.') + 1;
+        byte[] payload = Base64.getUrlDecoder().decode(token.substring(start, token.indexOf('.', start)));
+        try (JsonParser parser = JSON_FACTORY.createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return false;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("exp".equals(name) && value == JsonToken.VALUE_NUMBER_INT) {
+                    return parser.getLongValue() < System.currentTimeMillis() / 1000;
+                }
+                parser.skipChildren();
+            }
+        } catch (IOException ex) {
+            return false;
+        }
+        return false;
+    }
+
+    private Claims parse(String token) {
         try {
-            Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .parseClaimsJws(authToken);
-            return true;
+            return jwtParser.parseClaimsJws(token).getBody();
         } catch (SecurityException ex) {
-            System.err.println("Invalid JWT signature");
+            signatureFailures.increment();
         } catch (MalformedJwtException ex) {
-            System.err.println("Invalid JWT token");
+            malformedFailures.increment();
         } catch (ExpiredJwtException ex) {
-            System.err.println("Expired JWT token");
+            expiredFailures.increment();
         } catch (UnsupportedJwtException ex) {
-            System.err.println("Unsupported JWT token");
+            unsupportedFailures.increment();
         } catch (IllegalArgumentException ex) {
-            System.err.println("JWT claims string is empty");
+            emptyFailures.increment();
+        } catch (JwtException ex) {
+            invalidFailures.increment();
         }
-        return false;
+        return null;
+    }
+
+    public String getUsernameFromToken(String token) {
+        Claims claims = verifyToken(token);
+        return claims != null ? claims.getSubject() : null;
+    }
+
+    public boolean validateToken(String authToken) {
+        return verifyToken(authToken) != null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,119 @@
+package com.example.authsystem.security;
+
+import com.example.authsystem.dto.LoginExecutorStatsResponse;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * CPU-sized pool with a bounded queue that runs password verification for logins, so a login
+ * storm saturates at most these threads instead of every request thread. When the queue is full
+ * submissions fail fast with {@link RejectedExecutionException}.
+ */
+@Component
+public class LoginExecutor {
+
+    private final ThreadPoolExecutor executor;
+
+    private final long timeoutInMs;
+
+    private final LongAdder verifications = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder totalVerificationNanos = new LongAdder();
+    private final AtomicLong maxVerificationNanos = new AtomicLong();
+    private final LongAdder totalQueueWaitNanos = new LongAdder();
+
+    public LoginExecutor(@Value("${login-executor.threads:0}") int threads,
+                         @Value("${login-executor.queue-capacity:100}") int queueCapacity,
+                         @Value("${login-executor.timeout:10000}") long timeoutInMs) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "login-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutInMs = timeoutInMs;
+    }
+
+    /**
+     * Runs the task on the login pool and waits for its result.
+     *
+     * @throws RejectedExecutionException if the queue is full or the task did not finish in time
+     */
+    public <T> T execute(Callable<T> task) throws Exception {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                totalQueueWaitNanos.add(startedAt - submittedAt);
+                try {
+                    return task.call();
+                } finally {
+                    long elapsed = System.nanoTime() - startedAt;
+                    verifications.increment();
+                    totalVerificationNanos.add(elapsed);
+                    maxVerificationNanos.accumulateAndGet(elapsed, Math::max);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            rejections.increment();
+            throw ex;
+        }
+
+        try {
+            return future.get(timeoutInMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            rejections.increment();
+            throw new RejectedExecutionException("Login verification timed out", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    public ThreadPoolExecutor getNativeExecutor() {
+        return executor;
+    }
+
+    public LoginExecutorStatsResponse stats() {
+        long count = verifications.sum();
+        return new LoginExecutorStatsResponse(
+                executor.getPoolSize(),
+                executor.getActiveCount(),
+                executor.getQueue().size(),
+                executor.getQueue().remainingCapacity(),
+                count,
+                rejections.sum(),
+                count > 0 ? totalVerificationNanos.sum() / count / 1_000_000.0 : 0.0,
+                maxVerificationNanos.get() / 1_000_000.0,
+                count > 0 ? totalQueueWaitNanos.sum() / count / 1_000_000.0 : 0.0
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.authsystem.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets per client IP and per username that cap login attempts before any user lookup or
+ * password hashing. Each bucket is a single {@link AtomicLong} holding the time at which it will
+ * be full again (the GCRA form of a token bucket), so taking a token is one CAS and needs no lock.
+ * <p>
+ * A bucket that has refilled completely behaves exactly like a missing one, so the periodic sweep
+ * drops those. If a map still reaches {@code login-throttle.max-buckets}, further keys share one of
+ * {@value #OVERFLOW_STRIPES} overflow buckets chosen by hash, which keeps memory bounded while
+ * still throttling.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final int OVERFLOW_STRIPES = 1024;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${login-throttle.enabled:true}")
+    private boolean enabled;
+
+    private final Limiter ipLimiter;
+    private final Limiter usernameLimiter;
+
+    private Counter throttledByIp;
+    private Counter throttledByUsername;
+
+    public LoginThrottle(@Value("${login-throttle.ip.burst:20}") int ipBurst,
+                         @Value("${login-throttle.ip.per-minute:60}") int ipPerMinute,
+                         @Value("${login-throttle.username.burst:5}") int usernameBurst,
+                         @Value("${login-throttle.username.per-minute:5}") int usernamePerMinute,
+                         @Value("${login-throttle.max-buckets:100000}") int maxBuckets) {
+        this.ipLimiter = new Limiter(ipBurst, ipPerMinute, maxBuckets);
+        this.usernameLimiter = new Limiter(usernameBurst, usernamePerMinute, maxBuckets);
+    }
+
+    @PostConstruct
+    public void init() {
+        throttledByIp = throttledCounter("ip");
+        throttledByUsername = throttledCounter("username");
+    }
+
+    private Counter throttledCounter(String key) {
+        return Counter.builder("auth.login.throttled")
+                .description("Login attempts rejected before password verification, by the bucket that ran empty")
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes a token from the IP bucket and then from the username bucket.
+     *
+     * @return {@code 0} if the attempt may proceed, otherwise milliseconds until it may be retried
+     */
+    public long tryAcquire(String clientIp, String username) {
+        return tryAcquire(clientIp, username, System.nanoTime());
+    }
+
+    long tryAcquire(String clientIp, String username, long now) {
+        if (!enabled) {
+            return 0;
+        }
+        long wait = ipLimiter.tryAcquire(clientIp, now);
+        if (wait > 0) {
+            throttledByIp.increment();
+            return TimeUnit.NANOSECONDS.toMillis(wait) + 1;
+        }
+        // Usernames are case-insensitive for throttling so case variants share one bucket
+        wait = usernameLimiter.tryAcquire(username.toLowerCase(Locale.ROOT), now);
+        if (wait > 0) {
+            throttledByUsername.increment();
+            return TimeUnit.NANOSECONDS.toMillis(wait) + 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Gives a user who proved the password a full bucket again.
+     */
+    public void onSuccess(String username) {
+        usernameLimiter.buckets.remove(username.toLowerCase(Locale.ROOT));
+    }
+
+    @Scheduled(fixedDelayString = "${login-throttle.evict-interval:60000}", initialDelayString = "${login-throttle.evict-interval:60000}")
+    public void evictIdle() {
+        evictIdle(System.nanoTime());
+    }
+
+    void evictIdle(long now) {
+        ipLimiter.evictFull(now);
+        usernameLimiter.evictFull(now);
+    }
+
+    public int getIpBucketCount() {
+        return ipLimiter.buckets.size();
+    }
+
+    public int getUsernameBucketCount() {
+        return usernameLimiter.buckets.size();
+    }
+
+    private static final class Limiter {
+        // Time one token takes to refill
+        private final long intervalNanos;
+        // How far the bucket's full-again time may run ahead of now: burst - 1 tokens
+        private final long toleranceNanos;
+        private final int maxBuckets;
+        private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+        Limiter(int burst, int perMinute, int maxBuckets) {
+            this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, perMinute);
+            this.toleranceNanos = intervalNanos * (Math.max(1, burst) - 1);
+            this.maxBuckets = maxBuckets;
+        }
+
+        long tryAcquire(String key, long now) {
+            AtomicLong bucket = buckets.get(key);
+            if (bucket == null) {
+                if (buckets.size() >= maxBuckets) {
+                    key = "\u0000" + (key.hashCode() & (OVERFLOW_STRIPES - 1));
+                }
+                bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+            }
+            while (true) {
+                long fullAt = bucket.get();
+                long start = fullAt - now > 0 ? fullAt : now;
+                long wait = start - now - toleranceNanos;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (bucket.compareAndSet(fullAt, start + intervalNanos)) {
+                    return 0;
+                }
+            }
+        }
+
+        void evictFull(long now) {
+            buckets.entrySet().removeIf(entry -> entry.getValue().get() - now <= 0);
+        }
+    }
+}
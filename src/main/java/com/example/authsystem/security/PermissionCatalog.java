@@ -0,0 +1,351 @@
+package com.example.authsystem.security;
+
+import com.example.authsystem.entity.Menu;
+import com.example.authsystem.event.RbacChangedEvent;
+import com.example.authsystem.repository.MenuRepository;
+import com.example.authsystem.repository.RoleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory authorization model: interns every {@code Menu.permission} string to a dense int id,
+ * indexes menus by id and keeps, per role, its {@link PermissionSet} and ready-made authorities.
+ * Each model is an immutable {@link Snapshot} published through a volatile field, so readers never
+ * lock; writers build a new snapshot and swap it in.
+ * <p>
+ * A change to specific roles reloads only those roles' menu links and reuses everything else from
+ * the current snapshot. A change to all roles, or one that links a menu the snapshot does not
+ * know, rebuilds from scratch.
+ * <p>
+ * The catalog version is a digest of the permission list and of every role's name and
+ * permissions, so it changes whenever an authority could have been granted or revoked and is
+ * identical on every node that reads the same database, however the snapshot was built.
+ */
+@Component
+public class PermissionCatalog {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private volatile Snapshot snapshot;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public int idOf(String permission) {
+        return snapshot().idOf(permission);
+    }
+
+    public String permissionOf(int id) {
+        return snapshot().permissionOf(id);
+    }
+
+    public int size() {
+        return snapshot().size();
+    }
+
+    public long getVersion() {
+        return snapshot().getVersion();
+    }
+
+    /**
+     * Returns the current catalog. Callers that combine ids with a version should read both from
+     * the same snapshot.
+     */
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            rebuild();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    /**
+     * Returns the current catalog, first loading any of the given roles it does not know yet,
+     * e.g. a role created after the last change event reached this node.
+     */
+    public Snapshot snapshotCovering(Collection<Long> roleIds) {
+        Snapshot current = snapshot();
+        List<Long> missing = null;
+        for (Long roleId : roleIds) {
+            if (!current.roles.containsKey(roleId)) {
+                if (missing == null) {
+                    missing = new ArrayList<>();
+                }
+                missing.add(roleId);
+            }
+        }
+        if (missing == null) {
+            return current;
+        }
+        refreshRoles(missing);
+        return snapshot;
+    }
+
+    @EventListener
+    public void onRbacChanged(RbacChangedEvent event) {
+        if (event.isAllRoles()) {
+            rebuild();
+        } else {
+            refreshRoles(event.getRoleIds());
+        }
+    }
+
+    public void rebuild() {
+        // A lock rather than synchronized: the queries below would pin a virtual thread's carrier
+        rebuildLock.lock();
+        try {
+            doRebuild();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Reloads the given roles and swaps in a snapshot that shares every other role's entry with
+     * the current one. Roles that no longer exist are dropped.
+     */
+    public void refreshRoles(Collection<Long> roleIds) {
+        rebuildLock.lock();
+        try {
+            Snapshot current = snapshot;
+            if (current == null) {
+                doRebuild();
+                return;
+            }
+            Map<Long, RoleGrant> loaded = loadRoles(roleRepository.findRoleMenuIdsByRoleIds(roleIds), current, true);
+            if (loaded == null) {
+                // A role now links a menu this snapshot has not indexed
+                doRebuild();
+                return;
+            }
+            TreeMap<Long, RoleGrant> roles = new TreeMap<>(current.roles);
+            roleIds.forEach(roles::remove);
+            roles.putAll(loaded);
+            snapshot = new Snapshot(current.permissions, current.ids, current.permissionAuthorities,
+                    current.menuPermissionIds, current.permissionsDigest, roles);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void doRebuild() {
+        TreeSet<String> sorted = new TreeSet<>();
+        List<Menu> menus = menuRepository.findAll();
+        for (Menu menu : menus) {
+            if (menu.getPermission() != null && !menu.getPermission().isEmpty()) {
+                sorted.add(menu.getPermission());
+            }
+        }
+        List<String> permissions = List.copyOf(sorted);
+        Map<String, Integer> ids = new HashMap<>();
+        GrantedAuthority[] permissionAuthorities = new GrantedAuthority[permissions.size()];
+        MessageDigest digest = sha256();
+        for (int i = 0; i < permissions.size(); i++) {
+            ids.put(permissions.get(i), i);
+            permissionAuthorities[i] = new SimpleGrantedAuthority(permissions.get(i));
+            update(digest, permissions.get(i));
+        }
+        // Menus without a permission map to -1 so they still count as indexed
+        Map<Long, Integer> menuPermissionIds = new HashMap<>();
+        for (Menu menu : menus) {
+            Integer id = menu.getPermission() != null ? ids.get(menu.getPermission()) : null;
+            menuPermissionIds.put(menu.getId(), id != null ? id : -1);
+        }
+
+        Snapshot empty = new Snapshot(permissions, ids, permissionAuthorities, menuPermissionIds,
+                digest.digest(), new TreeMap<>());
+        // A menu inserted between the two queries is skipped; the change event for it rebuilds again
+        Map<Long, RoleGrant> roles = loadRoles(roleRepository.findRoleMenuIds(), empty, false);
+        snapshot = new Snapshot(permissions, ids, permissionAuthorities, menuPermissionIds,
+                empty.permissionsDigest, new TreeMap<>(roles));
+    }
+
+    /**
+     * Builds role entries from (role id, role name, menu id) rows. A row referencing a menu the
+     * given snapshot has not indexed makes a strict load return {@code null}; otherwise it is skipped.
+     */
+    private static Map<Long, RoleGrant> loadRoles(List<Object[]> rows, Snapshot catalog, boolean strict) {
+        Map<Long, String> names = new HashMap<>();
+        Map<Long, BitSet> roleBits = new HashMap<>();
+        for (Object[] row : rows) {
+            Long roleId = (Long) row[0];
+            names.put(roleId, (String) row[1]);
+            BitSet bits = roleBits.computeIfAbsent(roleId, id -> new BitSet(catalog.size()));
+            if (row[2] != null) {
+                Integer id = catalog.menuPermissionIds.get((Long) row[2]);
+                if (id == null && strict) {
+                    return null;
+                }
+                if (id != null && id >= 0) {
+                    bits.set(id);
+                }
+            }
+        }
+        Map<Long, RoleGrant> roles = new HashMap<>();
+        roleBits.forEach((roleId, bits) ->
+                roles.put(roleId, new RoleGrant(roleId, names.get(roleId), PermissionSet.of(bits), catalog)));
+        return roles;
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    /**
+     * One role's name, permissions and authorities ({@code ROLE_<name>} followed by its
+     * permissions in id order), plus the digest it contributes to the catalog version.
+     */
+    private static final class RoleGrant {
+        private final String name;
+        private final GrantedAuthority roleAuthority;
+        private final PermissionSet permissions;
+        private final List<GrantedAuthority> authorities;
+        private final byte[] digest;
+
+        RoleGrant(Long roleId, String name, PermissionSet permissions, Snapshot catalog) {
+            this.name = name;
+            this.roleAuthority = new SimpleGrantedAuthority(ROLE_PREFIX + name);
+            this.permissions = permissions;
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            authorities.add(roleAuthority);
+            MessageDigest digest = sha256();
+            update(digest, "#" + roleId + ":" + name);
+            for (int id = permissions.nextId(0); id >= 0; id = permissions.nextId(id + 1)) {
+                authorities.add(catalog.permissionAuthorities[id]);
+                update(digest, catalog.permissionOf(id));
+            }
+            this.authorities = List.copyOf(authorities);
+            this.digest = digest.digest();
+        }
+    }
+
+    public static final class Snapshot {
+        private final List<String> permissions;
+        private final Map<String, Integer> ids;
+        private final GrantedAuthority[] permissionAuthorities;
+        private final Map<Long, Integer> menuPermissionIds;
+        private final byte[] permissionsDigest;
+        private final Map<Long, RoleGrant> roles;
+        private final long version;
+
+        private Snapshot(List<String> permissions, Map<String, Integer> ids, GrantedAuthority[] permissionAuthorities,
+                         Map<Long, Integer> menuPermissionIds, byte[] permissionsDigest, TreeMap<Long, RoleGrant> roles) {
+            this.permissions = permissions;
+            this.ids = ids;
+            this.permissionAuthorities = permissionAuthorities;
+            this.menuPermissionIds = menuPermissionIds;
+            this.permissionsDigest = permissionsDigest;
+            this.roles = roles;
+            // Roles are digested in id order, so a partial refresh yields the same version as a rebuild
+            MessageDigest digest = sha256();
+            digest.update(permissionsDigest);
+            roles.values().forEach(role -> digest.update(role.digest));
+            this.version = ByteBuffer.wrap(digest.digest()).getLong();
+        }
+
+        public int idOf(String permission) {
+            Integer id = ids.get(permission);
+            return id != null ? id : -1;
+        }
+
+        public String permissionOf(int id) {
+            return id >= 0 && id < permissions.size() ? permissions.get(id) : null;
+        }
+
+        /**
+         * Shared authority instance for a permission id, or {@code null} if the id is unknown.
+         */
+        public GrantedAuthority authorityOf(int id) {
+            return id >= 0 && id < permissionAuthorities.length ? permissionAuthorities[id] : null;
+        }
+
+        public int size() {
+            return permissions.size();
+        }
+
+        /**
+         * Permission id of a menu, or -1 if the menu has no permission or is unknown.
+         */
+        public int permissionIdOfMenu(Long menuId) {
+            return menuPermissionIds.getOrDefault(menuId, -1);
+        }
+
+        public String roleName(Long roleId) {
+            RoleGrant role = roles.get(roleId);
+            return role != null ? role.name : null;
+        }
+
+        public PermissionSet permissionsOfRole(Long roleId) {
+            RoleGrant role = roles.get(roleId);
+            return role != null ? role.permissions : PermissionSet.EMPTY;
+        }
+
+        public PermissionSet permissionsOfRoles(Iterable<Long> roleIds) {
+            PermissionSet result = PermissionSet.EMPTY;
+            for (Long roleId : roleIds) {
+                result = result.union(permissionsOfRole(roleId));
+            }
+            return result;
+        }
+
+        /**
+         * Authorities granted by the given roles: their {@code ROLE_} authorities followed by the
+         * union of their permissions. Unknown role ids grant nothing.
+         */
+        public List<GrantedAuthority> authoritiesOfRoles(Set<Long> roleIds) {
+            if (roleIds.size() == 1) {
+                RoleGrant role = roles.get(roleIds.iterator().next());
+                return role != null ? role.authorities : List.of();
+            }
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            for (Long roleId : roleIds) {
+                RoleGrant role = roles.get(roleId);
+                if (role != null) {
+                    authorities.add(role.roleAuthority);
+                }
+            }
+            PermissionSet permissions = permissionsOfRoles(roleIds);
+            for (int id = permissions.nextId(0); id >= 0; id = permissions.nextId(id + 1)) {
+                authorities.add(permissionAuthorities[id]);
+            }
+            return authorities;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+    }
+}
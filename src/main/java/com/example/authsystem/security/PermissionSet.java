@@ -0,0 +1,87 @@
+package com.example.authsystem.security;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
+
+/**
+ * Immutable set of permission ids from {@link PermissionCatalog}, stored as a bitmap so that a
+ * permission check is a single bit test.
+ */
+public final class PermissionSet {
+
+    public static final PermissionSet EMPTY = new PermissionSet(new long[0]);
+
+    private final long[] words;
+
+    private PermissionSet(long[] words) {
+        this.words = words;
+    }
+
+    public static PermissionSet of(BitSet bits) {
+        return bits.isEmpty() ? EMPTY : new PermissionSet(bits.toLongArray());
+    }
+
+    public static PermissionSet decode(String encoded) {
+        return of(BitSet.valueOf(Base64.getUrlDecoder().decode(encoded)));
+    }
+
+    public boolean contains(int id) {
+        int index = id >>> 6;
+        return id >= 0 && index < words.length && (words[index] & (1L << id)) != 0;
+    }
+
+    public PermissionSet union(PermissionSet other) {
+        if (other.words.length == 0) {
+            return this;
+        }
+        if (words.length == 0) {
+            return other;
+        }
+        long[] longer = words.length >= other.words.length ? words : other.words;
+        long[] shorter = longer == words ? other.words : words;
+        long[] result = Arrays.copyOf(longer, longer.length);
+        for (int i = 0; i < shorter.length; i++) {
+            result[i] |= shorter[i];
+        }
+        return new PermissionSet(result);
+    }
+
+    /**
+     * Returns the next id in the set at or after {@code fromId}, or -1 if there is none.
+     */
+    public int nextId(int fromId) {
+        int index = fromId >>> 6;
+        if (fromId < 0 || index >= words.length) {
+            return -1;
+        }
+        long word = words[index] & (-1L << fromId);
+        while (true) {
+            if (word != 0) {
+                return index * 64 + Long.numberOfTrailingZeros(word);
+            }
+            if (++index == words.length) {
+                return -1;
+            }
+            word = words[index];
+        }
+    }
+
+    public boolean isEmpty() {
+        return words.length == 0;
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(BitSet.valueOf(words).toByteArray());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof PermissionSet other && Arrays.equals(words, other.words));
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+}
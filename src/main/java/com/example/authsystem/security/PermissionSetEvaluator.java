@@ -0,0 +1,46 @@
+package com.example.authsystem.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.PermissionEvaluator;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.io.Serializable;
+
+/**
+ * Answers {@code hasPermission(target, 'system:user')} expressions. For an {@link AuthorizedUser}
+ * principal the check is a catalog lookup plus a bit test; other principals fall back to comparing
+ * string authorities.
+ */
+@Component
+public class PermissionSetEvaluator implements PermissionEvaluator {
+
+    @Autowired
+    private PermissionCatalog permissionCatalog;
+
+    @Override
+    public boolean hasPermission(Authentication authentication, Object targetDomainObject, Object permission) {
+        return hasPermission(authentication, permission);
+    }
+
+    @Override
+    public boolean hasPermission(Authentication authentication, Serializable targetId, String targetType, Object permission) {
+        return hasPermission(authentication, permission);
+    }
+
+    private boolean hasPermission(Authentication authentication, Object permission) {
+        if (authentication == null || !(permission instanceof String name)) {
+            return false;
+        }
+        if (authentication.getPrincipal() instanceof AuthorizedUser user) {
+            return user.hasAuthority(name, permissionCatalog.snapshot());
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (name.equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
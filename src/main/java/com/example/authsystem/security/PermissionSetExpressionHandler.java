@@ -0,0 +1,164 @@
+package com.example.authsystem.security;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.core.Authentication;
+
+import java.util.function.Supplier;
+
+/**
+ * Method security expression handler whose {@code hasRole}/{@code hasAuthority} checks ask an
+ * {@link AuthorizedUser} principal directly instead of collecting its authorities into a string
+ * set on every call. Other principals and all other expressions keep Spring's behaviour.
+ */
+public class PermissionSetExpressionHandler extends DefaultMethodSecurityExpressionHandler {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final PermissionCatalog permissionCatalog;
+
+    public PermissionSetExpressionHandler(PermissionCatalog permissionCatalog) {
+        this.permissionCatalog = permissionCatalog;
+    }
+
+    @Override
+    public EvaluationContext createEvaluationContext(Supplier<Authentication> authentication, MethodInvocation mi) {
+        StandardEvaluationContext context = (StandardEvaluationContext) super.createEvaluationContext(authentication, mi);
+        context.setRootObject(new Root((MethodSecurityExpressionOperations) context.getRootObject().getValue()));
+        return context;
+    }
+
+    @Override
+    protected MethodSecurityExpressionOperations createSecurityExpressionRoot(Authentication authentication,
+                                                                              MethodInvocation invocation) {
+        return new Root(super.createSecurityExpressionRoot(authentication, invocation));
+    }
+
+    /**
+     * Expression root that answers authority checks through {@link AuthorizedUser#hasAuthority}
+     * and delegates everything else to Spring's root.
+     */
+    public final class Root implements MethodSecurityExpressionOperations {
+
+        public final boolean permitAll = true;
+        public final boolean denyAll = false;
+
+        private final MethodSecurityExpressionOperations delegate;
+
+        private Root(MethodSecurityExpressionOperations delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean hasAuthority(String authority) {
+            Authentication authentication = getAuthentication();
+            if (authentication != null && authentication.getPrincipal() instanceof AuthorizedUser user) {
+                return user.hasAuthority(authority, permissionCatalog.snapshot());
+            }
+            return delegate.hasAuthority(authority);
+        }
+
+        @Override
+        public boolean hasAnyAuthority(String... authorities) {
+            for (String authority : authorities) {
+                if (hasAuthority(authority)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean hasRole(String role) {
+            return hasAuthority(role.startsWith(ROLE_PREFIX) ? role : ROLE_PREFIX + role);
+        }
+
+        @Override
+        public boolean hasAnyRole(String... roles) {
+            for (String role : roles) {
+                if (hasRole(role)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public Object getPrincipal() {
+            Authentication authentication = getAuthentication();
+            return authentication != null ? authentication.getPrincipal() : null;
+        }
+
+        @Override
+        public Authentication getAuthentication() {
+            return delegate.getAuthentication();
+        }
+
+        @Override
+        public boolean permitAll() {
+            return true;
+        }
+
+        @Override
+        public boolean denyAll() {
+            return false;
+        }
+
+        @Override
+        public boolean isAnonymous() {
+            return delegate.isAnonymous();
+        }
+
+        @Override
+        public boolean isAuthenticated() {
+            return delegate.isAuthenticated();
+        }
+
+        @Override
+        public boolean isRememberMe() {
+            return delegate.isRememberMe();
+        }
+
+        @Override
+        public boolean isFullyAuthenticated() {
+            return delegate.isFullyAuthenticated();
+        }
+
+        @Override
+        public boolean hasPermission(Object target, Object permission) {
+            return delegate.hasPermission(target, permission);
+        }
+
+        @Override
+        public boolean hasPermission(Object targetId, String targetType, Object permission) {
+            return delegate.hasPermission(targetId, targetType, permission);
+        }
+
+        @Override
+        public void setFilterObject(Object filterObject) {
+            delegate.setFilterObject(filterObject);
+        }
+
+        @Override
+        public Object getFilterObject() {
+            return delegate.getFilterObject();
+        }
+
+        @Override
+        public void setReturnObject(Object returnObject) {
+            delegate.setReturnObject(returnObject);
+        }
+
+        @Override
+        public Object getReturnObject() {
+            return delegate.getReturnObject();
+        }
+
+        @Override
+        public Object getThis() {
+            return delegate.getThis();
+        }
+    }
+}
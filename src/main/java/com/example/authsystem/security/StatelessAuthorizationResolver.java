@@ -0,0 +1,182 @@
+package com.example.authsystem.security;
+
+import com.example.authsystem.event.UserChangedEvent;
+import com.example.authsystem.invalidation.InvalidationBus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Opt-in stateless authorization: writes the user's roles and a permission-id bitmap into the
+ * token and rebuilds the authorities from those claims without touching the database.
+ * <p>
+ * Claims are only trusted while their catalog version matches the current {@link PermissionCatalog}
+ * and the user has not been written since the token was issued; otherwise the caller falls back
+ * to loading the user from storage, so revocations still take effect.
+ * <p>
+ * Changed users are remembered for one access-token lifetime, up to
+ * {@code jwt.stateless-authorization.max-changed-users}; a user pushed out early raises the
+ * cut-off for everyone instead. A starting instance reloads the changes of the last token
+ * lifetime from the {@link InvalidationBus} history and, if the bus keeps none, distrusts every
+ * token issued before the start.
+ */
+@Component
+public class StatelessAuthorizationResolver {
+
+    public static final String ROLES_CLAIM = "roles";
+    public static final String PERMISSIONS_CLAIM = "perms";
+    public static final String CATALOG_VERSION_CLAIM = "pcv";
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    @Autowired
+    private PermissionCatalog permissionCatalog;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Value("${jwt.stateless-authorization.enabled:false}")
+    private boolean enabled;
+
+    private final Duration tokenLifetime;
+
+    // Users written recently, kept as long as a token issued before the write can live
+    private final Cache<String, Long> changedUsers;
+
+    // Tokens issued at or before this instant are never trusted; the start until history is loaded
+    private final AtomicLong allUsersChangedAt = new AtomicLong(System.currentTimeMillis());
+
+    public StatelessAuthorizationResolver(@Value("${jwt.expiration}") long jwtExpirationInMs,
+                                          @Value("${jwt.stateless-authorization.max-changed-users:100000}") long maxChangedUsers) {
+        this.tokenLifetime = Duration.ofMillis(jwtExpirationInMs);
+        this.changedUsers = Caffeine.newBuilder()
+                .maximumSize(maxChangedUsers)
+                .expireAfterWrite(tokenLifetime)
+                .evictionListener((String username, Long changedAt, RemovalCause cause) -> {
+                    if (cause == RemovalCause.SIZE) {
+                        markAllUsersChanged(changedAt);
+                    }
+                })
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Map<String, Object> buildClaims(UserDetails user) {
+        PermissionCatalog.Snapshot catalog = permissionCatalog.snapshot();
+        List<String> roles = new ArrayList<>();
+        BitSet permissions = new BitSet(catalog.size());
+        for (GrantedAuthority authority : user.getAuthorities()) {
+            String name = authority.getAuthority();
+            if (name.startsWith(ROLE_PREFIX)) {
+                roles.add(name.substring(ROLE_PREFIX.length()));
+            } else {
+                int id = catalog.idOf(name);
+                if (id >= 0) {
+                    permissions.set(id);
+                }
+            }
+        }
+
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(ROLES_CLAIM, roles);
+        claims.put(PERMISSIONS_CLAIM, PermissionSet.of(permissions).encode());
+        claims.put(CATALOG_VERSION_CLAIM, Long.toString(catalog.getVersion()));
+        return claims;
+    }
+
+    /**
+     * Returns the user described by the claims, or {@code null} when the claims are absent or
+     * stale and the caller has to load the user from storage.
+     */
+    public UserDetails resolve(Claims claims) {
+        if (!enabled) {
+            return null;
+        }
+        PermissionCatalog.Snapshot catalog = permissionCatalog.snapshot();
+        String catalogVersion = claims.get(CATALOG_VERSION_CLAIM, String.class);
+        String encodedPermissions = claims.get(PERMISSIONS_CLAIM, String.class);
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        if (catalogVersion == null || encodedPermissions == null || roles == null
+                || !catalogVersion.equals(Long.toString(catalog.getVersion()))) {
+            return null;
+        }
+
+        String username = claims.getSubject();
+        Long changedAt = changedUsers.getIfPresent(username);
+        long lastChange = Math.max(changedAt != null ? changedAt : 0L, allUsersChangedAt.get());
+        Date issuedAt = claims.getIssuedAt();
+        if (issuedAt == null || issuedAt.getTime() <= lastChange) {
+            return null;
+        }
+
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (Object role : roles) {
+            authorities.add(new SimpleGrantedAuthority(ROLE_PREFIX + role));
+        }
+        PermissionSet permissions = PermissionSet.decode(encodedPermissions);
+        for (int id = permissions.nextId(0); id >= 0; id = permissions.nextId(id + 1)) {
+            GrantedAuthority authority = catalog.authorityOf(id);
+            if (authority != null) {
+                authorities.add(authority);
+            }
+        }
+        return new AuthorizedUser(username, "", authorities, permissions, catalog.getVersion());
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        recordChange(event, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRecentChanges() {
+        long startedAt = allUsersChangedAt.get();
+        AtomicLong loggedAllUsersChangedAt = new AtomicLong();
+        boolean complete = invalidationBus.history(tokenLifetime, (event, changedAt) -> {
+            if (event instanceof UserChangedEvent user) {
+                if (user.isAllUsers()) {
+                    loggedAllUsersChangedAt.accumulateAndGet(changedAt, Math::max);
+                } else {
+                    recordChange(user, changedAt);
+                }
+            }
+        });
+        if (complete) {
+            // Only lowers the start-up cut-off; a change recorded meanwhile keeps its own entry or a later cut-off
+            allUsersChangedAt.compareAndSet(startedAt, loggedAllUsersChangedAt.get());
+        }
+    }
+
+    private void recordChange(UserChangedEvent event, long changedAt) {
+        if (event.isAllUsers() || event.getUsernames().isEmpty()) {
+            markAllUsersChanged(changedAt);
+            return;
+        }
+        event.getUsernames().forEach(username -> changedUsers.asMap().merge(username, changedAt, Math::max));
+    }
+
+    private void markAllUsersChanged(long changedAt) {
+        allUsersChangedAt.accumulateAndGet(changedAt, Math::max);
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.authsystem.security;
+
+import com.example.authsystem.entity.RevokedToken;
+import com.example.authsystem.event.TokenRevokedEvent;
+import com.example.authsystem.repository.RevokedTokenRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Revoked tokens and subjects, stored in {@code revoked_tokens} and fronted by a
+ * {@link BloomFilter} over their keys, so checking a token that was never revoked costs a few
+ * hashes and no database access. Only Bloom positives are confirmed against the table.
+ * <p>
+ * Every revocation is published as a {@link TokenRevokedEvent}, which the invalidation bus carries
+ * to the other instances, so their filters learn about it within one poll. Expired rows are purged
+ * every {@code revocation.purge-interval}, and the filter is rebuilt from the remaining rows.
+ */
+@Component
+public class TokenRevocationStore {
+
+    private static final String JTI_KEY = "j:";
+    private static final String SUBJECT_KEY = "s:";
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${revocation.expected-entries:100000}")
+    private long expectedEntries;
+
+    @Value("${revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // Subject revocations cover every token that can still be alive when they are made
+    private final long subjectRevocationTtlInMs;
+
+    private volatile BloomFilter filter;
+
+    // Receives revocations made while a rebuild is loading rows, so none is lost by the swap
+    private volatile BloomFilter building;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // Bloom positives on subjects repeat for every request of that user, so the lookup is cached briefly
+    private final Cache<String, Optional<LocalDateTime>> subjectRevocations = Caffeine.newBuilder()
+            .maximumSize(10000)
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .build();
+
+    // Same for jti positives the table did not confirm
+    private final Cache<String, Boolean> unrevokedJtis = Caffeine.newBuilder()
+            .maximumSize(10000)
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .build();
+
+    // Bumped before a revocation reaches the caches; see cacheLookup
+    private final AtomicLong revocations = new AtomicLong();
+
+    private Counter negatives;
+    private Counter falsePositives;
+    private Counter confirmed;
+
+    public TokenRevocationStore(@Value("${jwt.expiration}") long jwtExpirationInMs,
+                                @Value("${jwt.refresh-expiration}") long refreshExpirationInMs) {
+        this.subjectRevocationTtlInMs = Math.max(jwtExpirationInMs, refreshExpirationInMs);
+    }
+
+    @PostConstruct
+    public void init() {
+        negatives = checkCounter("negative");
+        falsePositives = checkCounter("false_positive");
+        confirmed = checkCounter("revoked");
+        rebuild();
+    }
+
+    private Counter checkCounter(String result) {
+        return Counter.builder("auth.revocation.checks")
+                .description("Revocation checks by outcome; only positives of the Bloom filter reach the database")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Revokes one token until it expires.
+     *
+     * @return {@code false} if the token had already been revoked
+     */
+    public boolean revokeToken(String jti, Date expiresAt) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            revokedTokenRepository.save(new RevokedToken(jti, null, now, toLocalDateTime(expiresAt)));
+        } catch (DataIntegrityViolationException ex) {
+            return false;
+        }
+        eventPublisher.publishEvent(TokenRevokedEvent.ofToken(jti, toEpochMilli(now)));
+        return true;
+    }
+
+    /**
+     * Revokes every token issued to the user so far, e.g. when the account is disabled.
+     */
+    public void revokeSubject(String subject) {
+        LocalDateTime now = LocalDateTime.now();
+        revokedTokenRepository.save(new RevokedToken(null, subject, now, now.plus(Duration.ofMillis(subjectRevocationTtlInMs))));
+        eventPublisher.publishEvent(TokenRevokedEvent.ofSubject(subject, toEpochMilli(now)));
+    }
+
+    /**
+     * Applies revocations made by this instance and, replayed from the invalidation bus, by others.
+     */
+    @EventListener
+    public void onTokenRevoked(TokenRevokedEvent event) {
+        if (event.isAll()) {
+            rebuild();
+            return;
+        }
+        revocations.incrementAndGet();
+        if (event.getJti() != null) {
+            add(JTI_KEY + event.getJti());
+            unrevokedJtis.invalidate(event.getJti());
+        }
+        if (event.getSubject() != null) {
+            add(SUBJECT_KEY + event.getSubject());
+            Optional<LocalDateTime> revokedAt = Optional.of(toLocalDateTime(new Date(event.getRevokedAt())));
+            subjectRevocations.asMap().merge(event.getSubject(), revokedAt,
+                    (cached, revoked) -> cached.isPresent() && cached.get().isAfter(revoked.get()) ? cached : revoked);
+        }
+    }
+
+    public boolean isRevoked(Claims claims) {
+        String jti = claims.getId();
+        String subject = claims.getSubject();
+        BloomFilter current = filter;
+        boolean jtiCandidate = jti != null && current.mightContain(JTI_KEY + jti);
+        boolean subjectCandidate = subject != null && current.mightContain(SUBJECT_KEY + subject);
+        if (!jtiCandidate && !subjectCandidate) {
+            negatives.increment();
+            return false;
+        }
+
+        long seen = revocations.get();
+        boolean revoked = false;
+        if (jtiCandidate && unrevokedJtis.getIfPresent(jti) == null) {
+            revoked = revokedTokenRepository.existsByJti(jti);
+            if (!revoked) {
+                cacheLookup(unrevokedJtis, jti, Boolean.TRUE, seen);
+            }
+        }
+        if (!revoked && subjectCandidate) {
+            Optional<LocalDateTime> revokedAt = subjectRevocations.getIfPresent(subject);
+            if (revokedAt == null) {
+                revokedAt = Optional.ofNullable(revokedTokenRepository.findLatestRevocationOfSubject(subject));
+                cacheLookup(subjectRevocations, subject, revokedAt, seen);
+            }
+            // iat has second precision, so a token issued in the same second as the revocation counts as revoked
+            Date issuedAt = claims.getIssuedAt();
+            revoked = revokedAt.isPresent()
+                    && (issuedAt == null || !toLocalDateTime(issuedAt).isAfter(revokedAt.get()));
+        }
+        (revoked ? confirmed : falsePositives).increment();
+        return revoked;
+    }
+
+    /**
+     * Caches a table lookup unless a revocation was applied after the lookup started. Put first and
+     * check second: a revocation counted after the check invalidates the entry itself.
+     */
+    private <V> void cacheLookup(Cache<String, V> cache, String key, V value, long seen) {
+        cache.put(key, value);
+        if (revocations.get() != seen) {
+            cache.invalidate(key);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${revocation.purge-interval:600000}", initialDelayString = "${revocation.purge-interval:600000}")
+    public void purge() {
+        revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        rebuild();
+    }
+
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revokedTokenRepository.count() * 2), falsePositiveRate);
+            // Published before reading the rows: a revocation committed after the read still reaches it
+            building = rebuilt;
+            List<Object[]> keys = revokedTokenRepository.findActiveKeys(LocalDateTime.now());
+            for (Object[] key : keys) {
+                if (key[0] != null) {
+                    rebuilt.add(JTI_KEY + key[0]);
+                }
+                if (key[1] != null) {
+                    rebuilt.add(SUBJECT_KEY + key[1]);
+                }
+            }
+            filter = rebuilt;
+            building = null;
+            revocations.incrementAndGet();
+            subjectRevocations.invalidateAll();
+            unrevokedJtis.invalidateAll();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void add(String key) {
+        // Read building before filter: if a rebuild has already cleared building, filter is the rebuilt one
+        BloomFilter pending = building;
+        BloomFilter current = filter;
+        current.add(key);
+        if (pending != null) {
+            pending.add(key);
+        }
+    }
+
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(Date date) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(date.getTime()), ZoneId.systemDefault());
+    }
+}
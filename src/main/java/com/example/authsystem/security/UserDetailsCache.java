@@ -0,0 +1,121 @@
+package com.example.authsystem.security;
+
+import com.example.authsystem.dto.CacheStatsResponse;
+import com.example.authsystem.event.RbacChangedEvent;
+import com.example.authsystem.event.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size- and TTL-bounded cache of resolved {@link UserDetails}, used by the JWT filter so that
+ * token checks do not rebuild the role/menu authority graph from the database on every request.
+ * <p>
+ * Only the filter reads through this cache; the login path keeps using the uncached
+ * {@code UserDetailsService}, because the authentication manager erases credentials on the
+ * principal it returns.
+ */
+@Component
+public class UserDetailsCache implements UserCache {
+
+    public static final String NAME = "userDetails";
+
+    private final Cache<String, UserDetails> cache;
+
+    private final LongAdder invalidations = new LongAdder();
+
+    // Bumped before every invalidation so that a load racing with it is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public UserDetailsCache(@Value("${cache.user-details.maximum-size:10000}") long maximumSize,
+                            @Value("${cache.user-details.ttl:300000}") long ttlInMs) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlInMs))
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        return cache.getIfPresent(username);
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        cache.put(user.getUsername(), user);
+    }
+
+    /**
+     * Caches a user loaded after {@link #generation()} returned {@code seen}, unless an invalidation
+     * happened in between and the user may have been loaded from before the write. Put first and
+     * check second: an invalidation counted after the check removes the entry itself.
+     */
+    public void putUserInCache(UserDetails user, long seen) {
+        cache.put(user.getUsername(), user);
+        if (generation.get() != seen) {
+            cache.invalidate(user.getUsername());
+        }
+    }
+
+    /**
+     * Read before loading a user that is to be cached with {@link #putUserInCache(UserDetails, long)}.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        generation.incrementAndGet();
+        cache.invalidate(username);
+        invalidations.increment();
+    }
+
+    public void removeAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+        invalidations.increment();
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.isAllUsers()) {
+            removeAll();
+            return;
+        }
+        event.getUsernames().forEach(this::removeUserFromCache);
+    }
+
+    @EventListener
+    public void onRbacChanged(RbacChangedEvent event) {
+        // Role and menu changes can touch any user's authorities
+        removeAll();
+    }
+
+    public Cache<String, UserDetails> getNativeCache() {
+        return cache;
+    }
+
+    public CacheStatsResponse stats() {
+        CacheStats stats = cache.stats();
+        return new CacheStatsResponse(
+                NAME,
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount(),
+                invalidations.sum()
+        );
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.authsystem.security;
+
+import com.example.authsystem.dto.CacheStatsResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Claims of recently verified tokens, keyed by the SHA-256 digest of the compact token so that a
+ * re-sent bearer token costs a hash lookup instead of a signature check. Each entry lives until
+ * its token's {@code exp}.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    public static final String NAME = "verifiedTokens";
+
+    private final Cache<ByteBuffer, Claims> cache;
+
+    private final MessageDigest digestPrototype;
+
+    public VerifiedTokenCache(@Value("${jwt.verified-cache.maximum-size:10000}") long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ExpiresWithToken())
+                .recordStats()
+                .build();
+        try {
+            this.digestPrototype = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    public Claims get(ByteBuffer key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(ByteBuffer key, Claims claims) {
+        if (claims.getExpiration() != null) {
+            cache.put(key, claims);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Digest of the token used as cache key; {@link ByteBuffer} compares by content.
+     */
+    public ByteBuffer keyOf(String token) {
+        MessageDigest digest;
+        try {
+            digest = (MessageDigest) digestPrototype.clone();
+        } catch (CloneNotSupportedException ex) {
+            throw new IllegalStateException("SHA-256 digest is not cloneable", ex);
+        }
+        return ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    public Cache<ByteBuffer, Claims> getNativeCache() {
+        return cache;
+    }
+
+    public CacheStatsResponse stats() {
+        CacheStats stats = cache.stats();
+        return new CacheStatsResponse(
+                NAME,
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount(),
+                0
+        );
+    }
+
+    private static class ExpiresWithToken implements Expiry<ByteBuffer, Claims> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Claims claims, long currentTime) {
+            long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMs, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
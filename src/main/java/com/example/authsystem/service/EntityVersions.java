@@ -0,0 +1,140 @@
+package com.example.authsystem.service;
+
+import com.example.authsystem.event.RbacChangedEvent;
+import com.example.authsystem.event.UserChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Strong ETags of polled read endpoints. An ETag is a SHA-256 over the JSON of the response body,
+ * so every instance hands out the same ETag for the same data, before and after a restart.
+ * <p>
+ * The ETag last computed for an entity is remembered together with the local version counters it
+ * was computed at, which the change events of every write bump, local or replayed from another
+ * instance. While they are unchanged, a matching {@code If-None-Match} is answered with 304 before
+ * any repository is touched. Users are versioned in {@value #USER_STRIPES} stripes by id, so writing
+ * one user only drops the ETags of users sharing its stripe. Roles and the role-menu catalog share
+ * one counter, which also covers every user because user payloads carry role names.
+ */
+@Component
+public class EntityVersions {
+
+    private static final int USER_STRIPES = 1024;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final AtomicLongArray userVersions = new AtomicLongArray(USER_STRIPES);
+
+    private final AtomicLong rbacVersion = new AtomicLong();
+
+    private final Cache<String, Tagged> eTags = Caffeine.newBuilder()
+            .maximumSize(10000)
+            .build();
+
+    /**
+     * Versions of one user; take it before loading the user so a write racing with the load makes
+     * the resulting ETag stale instead of the other way round.
+     */
+    public Snapshot user(Long userId) {
+        return new Snapshot("u" + userId, userVersions.get(stripeOf(userId)), rbacVersion.get());
+    }
+
+    public Snapshot role(Long roleId) {
+        return new Snapshot("r" + roleId, 0, rbacVersion.get());
+    }
+
+    public Snapshot activeRoles() {
+        return new Snapshot("ra", 0, rbacVersion.get());
+    }
+
+    /**
+     * The ETag remembered for the snapshot's entity, or {@code null} if it has to be computed from
+     * the body.
+     */
+    public String knownETag(Snapshot snapshot) {
+        Tagged tagged = eTags.getIfPresent(snapshot.key);
+        return tagged != null && tagged.matches(snapshot) ? tagged.eTag : null;
+    }
+
+    public String eTag(Snapshot snapshot, Object body) {
+        String eTag = knownETag(snapshot);
+        if (eTag == null) {
+            eTag = hash(body);
+            eTags.put(snapshot.key, new Tagged(eTag, snapshot.userVersion, snapshot.rbacVersion));
+        }
+        return eTag;
+    }
+
+    private String hash(Object body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(body));
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16)) + "\"";
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Cannot compute ETag", ex);
+        }
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        // Events naming users only by username cannot be mapped to a stripe
+        if (event.isAllUsers() || event.getUserIds().isEmpty()) {
+            for (int stripe = 0; stripe < USER_STRIPES; stripe++) {
+                userVersions.incrementAndGet(stripe);
+            }
+            return;
+        }
+        for (Long userId : event.getUserIds()) {
+            userVersions.incrementAndGet(stripeOf(userId));
+        }
+    }
+
+    @EventListener
+    public void onRbacChanged(RbacChangedEvent event) {
+        rbacVersion.incrementAndGet();
+    }
+
+    private static int stripeOf(Long userId) {
+        return Long.hashCode(userId) & (USER_STRIPES - 1);
+    }
+
+    public static final class Snapshot {
+        private final String key;
+        private final long userVersion;
+        private final long rbacVersion;
+
+        private Snapshot(String key, long userVersion, long rbacVersion) {
+            this.key = key;
+            this.userVersion = userVersion;
+            this.rbacVersion = rbacVersion;
+        }
+    }
+
+    private static final class Tagged {
+        private final String eTag;
+        private final long userVersion;
+        private final long rbacVersion;
+
+        Tagged(String eTag, long userVersion, long rbacVersion) {
+            this.eTag = eTag;
+            this.userVersion = userVersion;
+            this.rbacVersion = rbacVersion;
+        }
+
+        boolean matches(Snapshot snapshot) {
+            return userVersion == snapshot.userVersion && rbacVersion == snapshot.rbacVersion;
+        }
+    }
+}
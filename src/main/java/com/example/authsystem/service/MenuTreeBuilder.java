@@ -0,0 +1,71 @@
+package com.example.authsystem.service;
+
+import com.example.authsystem.dto.MenuDTO;
+import com.example.authsystem.entity.Menu;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds a menu tree of any depth in linear time: menus are indexed by {@code parentId} in one
+ * pass and every node is visited once. Siblings are ordered by {@code sortOrder}, then id.
+ * <p>
+ * Children lists of the returned nodes are unmodifiable so whole trees can be cached and shared
+ * between responses; callers must not mutate the nodes.
+ */
+public final class MenuTreeBuilder {
+
+    private static final Long ROOT_PARENT_ID = 0L;
+
+    private static final Comparator<Menu> SIBLING_ORDER = Comparator
+            .comparing(Menu::getSortOrder, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Menu::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private MenuTreeBuilder() {}
+
+    public static List<MenuDTO> build(List<Menu> menus) {
+        Map<Long, List<Menu>> childrenByParent = new HashMap<>();
+        for (Menu menu : menus) {
+            childrenByParent.computeIfAbsent(menu.getParentId(), id -> new ArrayList<>()).add(menu);
+        }
+        return buildChildren(ROOT_PARENT_ID, childrenByParent, new HashSet<>());
+    }
+
+    private static List<MenuDTO> buildChildren(Long parentId, Map<Long, List<Menu>> childrenByParent, Set<Long> visited) {
+        List<Menu> children = childrenByParent.get(parentId);
+        if (children == null) {
+            return List.of();
+        }
+        children.sort(SIBLING_ORDER);
+        List<MenuDTO> nodes = new ArrayList<>(children.size());
+        for (Menu menu : children) {
+            // Guards against parent_id cycles in the data
+            if (!visited.add(menu.getId())) {
+                continue;
+            }
+            MenuDTO node = convertToMenuDTO(menu);
+            node.setChildren(buildChildren(menu.getId(), childrenByParent, visited));
+            nodes.add(node);
+        }
+        return List.copyOf(nodes);
+    }
+
+    public static MenuDTO convertToMenuDTO(Menu menu) {
+        return new MenuDTO(
+                menu.getId(),
+                menu.getName(),
+                menu.getPath(),
+                menu.getComponent(),
+                menu.getIcon(),
+                menu.getParentId(),
+                menu.getSortOrder(),
+                menu.getPermission(),
+                menu.getMenuType()
+        );
+    }
+}
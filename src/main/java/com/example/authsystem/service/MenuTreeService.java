@@ -0,0 +1,80 @@
+package com.example.authsystem.service;
+
+import com.example.authsystem.dto.CacheStatsResponse;
+import com.example.authsystem.dto.MenuDTO;
+import com.example.authsystem.event.RbacChangedEvent;
+import com.example.authsystem.repository.MenuRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Menu trees cached per distinct set of role ids, since many users share the same few role
+ * combinations. Every RBAC change drops the whole cache.
+ */
+@Service
+public class MenuTreeService {
+
+    public static final String NAME = "menuTrees";
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    private final Cache<List<Long>, List<MenuDTO>> cache;
+
+    private final LongAdder invalidations = new LongAdder();
+
+    public MenuTreeService(@Value("${cache.menu-trees.maximum-size:1000}") long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    public List<MenuDTO> getMenuTree(Collection<Long> roleIds) {
+        List<Long> key = List.copyOf(new TreeSet<>(roleIds));
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        // Not cache.get(key, loader): the loader would query the database while holding a map
+        // bin lock, pinning virtual threads. Concurrent misses may build the same tree twice.
+        List<MenuDTO> tree = cache.getIfPresent(key);
+        if (tree == null) {
+            tree = MenuTreeBuilder.build(menuRepository.findByRoleIds(key));
+            cache.put(key, tree);
+        }
+        return tree;
+    }
+
+    @EventListener
+    public void onRbacChanged(RbacChangedEvent event) {
+        cache.invalidateAll();
+        invalidations.increment();
+    }
+
+    public Cache<List<Long>, List<MenuDTO>> getNativeCache() {
+        return cache;
+    }
+
+    public CacheStatsResponse stats() {
+        CacheStats stats = cache.stats();
+        return new CacheStatsResponse(
+                NAME,
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount(),
+                invalidations.sum()
+        );
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.authsystem.service;
+
+import com.example.authsystem.config.SecondLevelCacheConfig;
+import com.example.authsystem.dto.CacheStatsResponse;
+import com.example.authsystem.entity.Menu;
+import com.example.authsystem.entity.Role;
+import com.example.authsystem.event.RbacChangedEvent;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.cache.CacheManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Evicts the RBAC regions of the Hibernate second-level cache on RBAC change events and reports
+ * their hit ratios. Hibernate keeps the regions current for writes made through this instance's
+ * session factory; the events add the writes made by other instances.
+ */
+@Service
+public class SecondLevelCacheService {
+
+    private static final String ROLE_MENUS_ROLE = Role.class.getName() + ".menus";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager hibernateCacheManager;
+
+    @Value("${second-level-cache.enabled:true}")
+    private boolean enabled;
+
+    private final LongAdder invalidations = new LongAdder();
+
+    @EventListener
+    public void onRbacChanged(RbacChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        if (event.isAllRoles()) {
+            cache.evictEntityData(Role.class);
+            cache.evictEntityData(Menu.class);
+            cache.evictCollectionData(ROLE_MENUS_ROLE);
+        } else {
+            for (Long roleId : event.getRoleIds()) {
+                cache.evictEntityData(Role.class, roleId);
+                cache.evictCollectionData(ROLE_MENUS_ROLE, roleId);
+            }
+        }
+        cache.evictQueryRegion(SecondLevelCacheConfig.RBAC_QUERY_REGION);
+        invalidations.increment();
+    }
+
+    public List<CacheStatsResponse> stats() {
+        if (!enabled) {
+            return List.of();
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<CacheStatsResponse> stats = new ArrayList<>();
+        stats.add(regionStats(SecondLevelCacheConfig.ROLE_REGION, statistics.getDomainDataRegionStatistics(SecondLevelCacheConfig.ROLE_REGION)));
+        stats.add(regionStats(SecondLevelCacheConfig.MENU_REGION, statistics.getDomainDataRegionStatistics(SecondLevelCacheConfig.MENU_REGION)));
+        stats.add(regionStats(SecondLevelCacheConfig.ROLE_MENUS_REGION, statistics.getDomainDataRegionStatistics(SecondLevelCacheConfig.ROLE_MENUS_REGION)));
+        stats.add(regionStats(SecondLevelCacheConfig.RBAC_QUERY_REGION, statistics.getQueryRegionStatistics(SecondLevelCacheConfig.RBAC_QUERY_REGION)));
+        return stats;
+    }
+
+    private CacheStatsResponse regionStats(String region, CacheRegionStatistics regionStatistics) {
+        // Hits and misses as Hibernate counts them; size and evictions from the Caffeine cache underneath
+        long hits = regionStatistics != null ? regionStatistics.getHitCount() : 0;
+        long misses = regionStatistics != null ? regionStatistics.getMissCount() : 0;
+        com.github.benmanes.caffeine.cache.Cache<?, ?> cache = hibernateCacheManager.getCache(region)
+                .unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+        return new CacheStatsResponse(
+                "l2:" + region,
+                cache.estimatedSize(),
+                hits,
+                misses,
+                hits + misses > 0 ? (double) hits / (hits + misses) : 1.0,
+                cache.stats().evictionCount(),
+                invalidations.sum()
+        );
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.authsystem.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Trigram index over the {@code username} and {@code email} of users, answering substring
+ * searches with the matching user ids. Not thread-safe; {@link UserSearchIndex} guards it.
+ * <p>
+ * Documents are appended and never rewritten: updating a user tombstones its old document and
+ * appends a new one, so every posting list stays sorted without any shifting. Candidates taken
+ * from the shortest posting list are verified with {@link String#contains}, so results are exact.
+ * Values and needles are lower-cased with {@link Locale#ROOT}, matching the case-insensitive
+ * {@code LIKE} of a {@code *_ci} collation and of the {@code LOWER(...)} fallback queries.
+ */
+public final class TrigramIndex {
+
+    public static final int USERNAME = 0;
+    public static final int EMAIL = 1;
+
+    // Rough JVM footprints (compressed oops) used for the memory estimate
+    private static final int GRAM_ENTRY_BYTES = 96;
+    private static final int DOC_ENTRY_BYTES = 72;
+    private static final int STRING_BYTES = 40;
+
+    private long[] userIds = new long[1024];
+    private String[][] values = new String[2][1024];
+    private final BitSet live = new BitSet();
+    private int docCount;
+    private int liveCount;
+    private final Map<Long, Integer> docByUserId = new HashMap<>();
+    private final Map<Long, Postings> grams = new HashMap<>();
+    private long postingBytes;
+    private long textBytes;
+
+    public void put(long userId, String username, String email) {
+        remove(userId);
+        int doc = docCount++;
+        if (doc == userIds.length) {
+            int capacity = doc * 2;
+            userIds = Arrays.copyOf(userIds, capacity);
+            values[USERNAME] = Arrays.copyOf(values[USERNAME], capacity);
+            values[EMAIL] = Arrays.copyOf(values[EMAIL], capacity);
+        }
+        userIds[doc] = userId;
+        live.set(doc);
+        liveCount++;
+        docByUserId.put(userId, doc);
+        index(doc, USERNAME, username);
+        index(doc, EMAIL, email);
+    }
+
+    public void remove(long userId) {
+        Integer doc = docByUserId.remove(userId);
+        if (doc == null) {
+            return;
+        }
+        live.clear(doc);
+        liveCount--;
+        for (String[] field : values) {
+            if (field[doc] != null) {
+                textBytes -= STRING_BYTES + field[doc].length();
+                field[doc] = null;
+            }
+        }
+    }
+
+    /**
+     * Returns the ids of users whose field contains {@code needle}, or {@code null} if more than
+     * {@code limit} users match.
+     */
+    public List<Long> search(int field, String needle, int limit) {
+        needle = needle.toLowerCase(Locale.ROOT);
+        List<Long> result = new ArrayList<>();
+        String[] fieldValues = values[field];
+        if (needle.length() < 3) {
+            for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+                if (fieldValues[doc] != null && fieldValues[doc].contains(needle) && !add(result, doc, limit)) {
+                    return null;
+                }
+            }
+            return result;
+        }
+
+        Postings shortest = null;
+        for (int i = 0; i + 3 <= needle.length(); i++) {
+            Postings postings = grams.get(gram(field, needle, i));
+            if (postings == null) {
+                return result;
+            }
+            if (shortest == null || postings.size < shortest.size) {
+                shortest = postings;
+            }
+        }
+        for (int i = 0; i < shortest.size; i++) {
+            int doc = shortest.docs[i];
+            if (live.get(doc) && fieldValues[doc].contains(needle) && !add(result, doc, limit)) {
+                return null;
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return liveCount;
+    }
+
+    public int gramCount() {
+        return grams.size();
+    }
+
+    /**
+     * Whether tombstoned documents outnumber live ones enough that {@link #compact()} pays off.
+     */
+    public boolean needsCompaction() {
+        return docCount - liveCount > Math.max(1024, liveCount);
+    }
+
+    public TrigramIndex compact() {
+        TrigramIndex compacted = new TrigramIndex();
+        for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+            compacted.put(userIds[doc], values[USERNAME][doc], values[EMAIL][doc]);
+        }
+        return compacted;
+    }
+
+    public long estimatedBytes() {
+        return (long) userIds.length * (8 + 4 + 4)
+                + (long) docByUserId.size() * DOC_ENTRY_BYTES
+                + (long) grams.size() * GRAM_ENTRY_BYTES
+                + postingBytes
+                + textBytes;
+    }
+
+    private boolean add(List<Long> result, int doc, int limit) {
+        if (result.size() == limit) {
+            return false;
+        }
+        result.add(userIds[doc]);
+        return true;
+    }
+
+    private void index(int doc, int field, String value) {
+        if (value == null) {
+            return;
+        }
+        value = value.toLowerCase(Locale.ROOT);
+        values[field][doc] = value;
+        textBytes += STRING_BYTES + value.length();
+        for (int i = 0; i + 3 <= value.length(); i++) {
+            Postings postings = grams.computeIfAbsent(gram(field, value, i), key -> new Postings());
+            int before = postings.docs.length;
+            postings.add(doc);
+            postingBytes += (long) (postings.docs.length - before) * Integer.BYTES;
+        }
+    }
+
+    private static long gram(int field, String value, int offset) {
+        return (long) field << 48
+                | (long) value.charAt(offset) << 32
+                | (long) value.charAt(offset + 1) << 16
+                | value.charAt(offset + 2);
+    }
+
+    private static final class Postings {
+        private int[] docs = new int[2];
+        private int size;
+
+        void add(int doc) {
+            // A trigram repeated within one value is only recorded once
+            if (size > 0 && docs[size - 1] == doc) {
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+    }
+}
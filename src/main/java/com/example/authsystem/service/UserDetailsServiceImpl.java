@@ -1,19 +1,18 @@
 package com.example.authsystem.service;
 
-import com.example.authsystem.entity.User;
 import com.example.authsystem.repository.UserRepository;
+import com.example.authsystem.security.AuthorizedUser;
+import com.example.authsystem.security.PermissionCatalog;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
@@ -21,33 +20,45 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PermissionCatalog permissionCatalog;
+
+    /**
+     * Reads only the user's credentials, status and role ids; role names and permissions come from
+     * the in-memory {@link PermissionCatalog}.
+     * <p>
+     * Not read-only, so it stays on the primary: the result is cached for minutes by
+     * {@link com.example.authsystem.security.UserDetailsCache}, and a lagging replica could hand it
+     * a user that was just disabled.
+     */
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        // One row per role, or a single row with a null role id for a user without roles
+        List<Object[]> rows = userRepository.findCredentialsAndRoleIdsByUsername(username);
+        if (rows.isEmpty()) {
+            throw new UsernameNotFoundException("User not found: " + username);
+        }
 
-        if (!user.isActive()) {
+        Object[] first = rows.get(0);
+        if (!Integer.valueOf(1).equals(first[1])) {
             throw new UsernameNotFoundException("User account is disabled: " + username);
         }
 
-        List<GrantedAuthority> authorities = user.getRoles().stream()
-                .map(role -> new SimpleGrantedAuthority("ROLE_" + role.getName()))
-                .collect(Collectors.toList());
-
-        // Add menu permissions as authorities
-        user.getRoles().forEach(role -> {
-            role.getMenus().forEach(menu -> {
-                if (menu.getPermission() != null && !menu.getPermission().isEmpty()) {
-                    authorities.add(new SimpleGrantedAuthority(menu.getPermission()));
-                }
-            });
-        });
-
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                authorities
+        Set<Long> roleIds = new LinkedHashSet<>();
+        for (Object[] row : rows) {
+            if (row[2] != null) {
+                roleIds.add((Long) row[2]);
+            }
+        }
+
+        PermissionCatalog.Snapshot catalog = permissionCatalog.snapshotCovering(roleIds);
+        return new AuthorizedUser(
+                username,
+                (String) first[0],
+                catalog.authoritiesOfRoles(roleIds),
+                catalog.permissionsOfRoles(roleIds),
+                catalog.getVersion()
         );
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,174 @@
+package com.example.authsystem.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes every user with its role names as CSV or NDJSON straight from a forward-only JDBC
+ * cursor. Users and role names come from one join ordered by user id, so a user's rows are
+ * adjacent and only the current user is held in memory. Writes block when the client reads
+ * slowly, which in turn stops the cursor from fetching further rows.
+ */
+@Service
+public class UserExportService {
+
+    private static final String EXPORT_SQL = "SELECT u.id, u.username, u.email, u.phone, u.status, u.created_at, u.updated_at, r.name"
+            + " FROM users u LEFT JOIN user_roles ur ON ur.user_id = u.id LEFT JOIN roles r ON r.id = ur.role_id"
+            + " ORDER BY u.id";
+
+    private static final String CSV_HEADER = "id,username,email,phone,status,createdAt,updatedAt,roles";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserExportService(DataSource dataSource, @Value("${user-export.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    @Transactional(readOnly = true)
+    public void export(OutputStream out, boolean csv) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 8192);
+        JsonGenerator json = csv ? null : objectMapper.getFactory().createGenerator(writer).setRootValueSeparator(null);
+        if (csv) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        ExportRow current = new ExportRow();
+        try {
+            jdbcTemplate.query(EXPORT_SQL, (RowCallbackHandler) rs -> {
+                long id = rs.getLong(1);
+                if (current.roles != null && current.id != id) {
+                    write(current, writer, json);
+                }
+                if (current.roles == null || current.id != id) {
+                    current.read(id, rs);
+                }
+                String role = rs.getString(8);
+                if (role != null) {
+                    current.roles.add(role);
+                }
+            });
+            if (current.roles != null) {
+                write(current, writer, json);
+            }
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        if (json != null) {
+            json.flush();
+        }
+        writer.flush();
+    }
+
+    private void write(ExportRow row, Writer writer, JsonGenerator json) {
+        try {
+            if (json != null) {
+                writeJson(row, json);
+            } else {
+                writeCsv(row, writer);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void writeJson(ExportRow row, JsonGenerator json) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("id", row.id);
+        json.writeStringField("username", row.username);
+        json.writeStringField("email", row.email);
+        json.writeStringField("phone", row.phone);
+        json.writeNumberField("status", row.status);
+        json.writeStringField("createdAt", row.createdAt);
+        json.writeStringField("updatedAt", row.updatedAt);
+        json.writeArrayFieldStart("roles");
+        for (String role : row.roles) {
+            json.writeString(role);
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private static void writeCsv(ExportRow row, Writer writer) throws IOException {
+        writer.write(Long.toString(row.id));
+        writer.write(',');
+        writeCsvValue(row.username, writer);
+        writer.write(',');
+        writeCsvValue(row.email, writer);
+        writer.write(',');
+        writeCsvValue(row.phone, writer);
+        writer.write(',');
+        writer.write(Integer.toString(row.status));
+        writer.write(',');
+        writeCsvValue(row.createdAt, writer);
+        writer.write(',');
+        writeCsvValue(row.updatedAt, writer);
+        writer.write(',');
+        writeCsvValue(String.join("|", row.roles), writer);
+        writer.write('\n');
+    }
+
+    private static void writeCsvValue(String value, Writer writer) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static final class ExportRow {
+        private long id;
+        private String username;
+        private String email;
+        private String phone;
+        private int status;
+        private String createdAt;
+        private String updatedAt;
+        private List<String> roles;
+
+        void read(long id, ResultSet rs) throws SQLException {
+            this.id = id;
+            this.username = rs.getString(2);
+            this.email = rs.getString(3);
+            this.phone = rs.getString(4);
+            this.status = rs.getInt(5);
+            this.createdAt = format(rs.getTimestamp(6));
+            this.updatedAt = format(rs.getTimestamp(7));
+            this.roles = new ArrayList<>();
+        }
+
+        private static String format(Timestamp timestamp) {
+            return timestamp != null ? timestamp.toLocalDateTime().toString() : null;
+        }
+    }
+}
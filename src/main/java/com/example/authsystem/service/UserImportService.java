@@ -0,0 +1,367 @@
+package com.example.authsystem.service;
+
+import com.example.authsystem.dto.UserImportError;
+import com.example.authsystem.dto.UserImportResponse;
+import com.example.authsystem.dto.UserImportRow;
+import com.example.authsystem.entity.Role;
+import com.example.authsystem.entity.User;
+import com.example.authsystem.event.UserChangedEvent;
+import com.example.authsystem.repository.RoleRepository;
+import com.example.authsystem.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Creates users from a streamed NDJSON or CSV body.
+ * <p>
+ * Rows are read and processed in chunks of {@code user-import.chunk-size}: each chunk is validated,
+ * checked for existing usernames with one {@code IN} query, hashed in parallel on a dedicated pool
+ * and inserted in one transaction, which Hibernate sends as JDBC batches for {@code users} and
+ * {@code user_roles}. Invalid rows are reported and skipped; the rest of the stream is still
+ * imported. If a chunk hits a concurrent insert of the same username, it is retried row by row.
+ * <p>
+ * CSV input needs a header line naming its columns ({@code username}, {@code password},
+ * {@code email}, {@code phone}, {@code status}, {@code roles}); role names are separated by
+ * {@code |}. Quoted values may not span lines.
+ */
+@Service
+public class UserImportService {
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    private static final Set<String> CSV_COLUMNS = Set.of("username", "password", "email", "phone", "status", "roles");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${user-import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${user-import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    private final ExecutorService hashExecutor;
+
+    public UserImportService(@Value("${user-import.hash-threads:0}") int hashThreads) {
+        int poolSize = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.hashExecutor = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "user-import-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Imports every row of the body and reports the rows that were rejected.
+     *
+     * @throws IllegalArgumentException if a CSV header is missing or names an unknown column
+     */
+    public UserImportResponse importUsers(InputStream body, Charset charset, boolean csv) throws IOException {
+        long startedAt = System.nanoTime();
+        UserImportResponse response = new UserImportResponse();
+        Map<String, Long> roleIds = roleRepository.findAll().stream()
+                .collect(Collectors.toMap(Role::getName, Role::getId));
+        Set<String> seenUsernames = new HashSet<>();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, charset));
+        List<String> header = null;
+        List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (csv && header == null) {
+                header = parseHeader(line);
+                continue;
+            }
+            chunk.add(csv ? parseCsv(lineNumber, header, line) : parseJson(lineNumber, line));
+            if (chunk.size() == chunkSize) {
+                processChunk(chunk, roleIds, seenUsernames, response);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, roleIds, seenUsernames, response);
+        }
+
+        response.getErrors().sort(Comparator.comparingLong(UserImportError::getLine));
+        response.setElapsedMs((System.nanoTime() - startedAt) / 1_000_000);
+        return response;
+    }
+
+    private void processChunk(List<ParsedRow> chunk, Map<String, Long> roleIds, Set<String> seenUsernames,
+                              UserImportResponse response) {
+        response.setRows(response.getRows() + chunk.size());
+
+        List<ParsedRow> candidates = new ArrayList<>();
+        for (ParsedRow parsed : chunk) {
+            String error = parsed.error != null ? parsed.error : validate(parsed, roleIds);
+            if (error == null && !seenUsernames.add(parsed.row.getUsername())) {
+                error = "Duplicate username in import";
+            }
+            if (error != null) {
+                reject(response, parsed, error);
+            } else {
+                candidates.add(parsed);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        Set<String> existing = new HashSet<>(userRepository.findExistingUsernames(
+                candidates.stream().map(parsed -> parsed.row.getUsername()).collect(Collectors.toList())));
+        List<ParsedRow> accepted = new ArrayList<>();
+        for (ParsedRow parsed : candidates) {
+            if (existing.contains(parsed.row.getUsername())) {
+                reject(response, parsed, "Username already exists");
+            } else {
+                accepted.add(parsed);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        hashPasswords(accepted);
+
+        List<User> saved = new ArrayList<>();
+        try {
+            saved.addAll(insert(accepted));
+        } catch (DataIntegrityViolationException ex) {
+            for (ParsedRow parsed : accepted) {
+                try {
+                    saved.addAll(insert(List.of(parsed)));
+                } catch (DataIntegrityViolationException rowEx) {
+                    reject(response, parsed, "Username already exists");
+                }
+            }
+        }
+        response.setCreated(response.getCreated() + saved.size());
+        if (!saved.isEmpty()) {
+            eventPublisher.publishEvent(UserChangedEvent.of(
+                    saved.stream().map(User::getId).collect(Collectors.toList()),
+                    saved.stream().map(User::getUsername).collect(Collectors.toList())));
+        }
+    }
+
+    private String validate(ParsedRow parsed, Map<String, Long> roleIds) {
+        Set<ConstraintViolation<UserImportRow>> violations = validator.validate(parsed.row);
+        if (!violations.isEmpty()) {
+            return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+        }
+        for (String roleName : parsed.row.getRoles()) {
+            Long roleId = roleIds.get(roleName);
+            if (roleId == null) {
+                return "Unknown role '" + roleName + "'";
+            }
+            parsed.roleIds.add(roleId);
+        }
+        return null;
+    }
+
+    private void hashPasswords(List<ParsedRow> rows) {
+        List<Future<String>> hashes = new ArrayList<>(rows.size());
+        for (ParsedRow parsed : rows) {
+            String password = parsed.row.getPassword();
+            hashes.add(hashExecutor.submit(() -> passwordEncoder.encode(password)));
+        }
+        try {
+            for (int i = 0; i < rows.size(); i++) {
+                rows.get(i).passwordHash = hashes.get(i).get();
+            }
+        } catch (InterruptedException ex) {
+            hashes.forEach(hash -> hash.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("User import interrupted", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Password hashing failed", ex.getCause());
+        }
+    }
+
+    private List<User> insert(List<ParsedRow> rows) {
+        return transactionTemplate.execute(status -> {
+            List<User> users = new ArrayList<>(rows.size());
+            for (ParsedRow parsed : rows) {
+                UserImportRow row = parsed.row;
+                User user = new User(row.getUsername(), parsed.passwordHash, row.getEmail());
+                user.setPhone(row.getPhone());
+                user.setStatus(row.getStatus());
+                for (Long roleId : parsed.roleIds) {
+                    user.getRoles().add(roleRepository.getReferenceById(roleId));
+                }
+                users.add(user);
+            }
+            List<User> saved = userRepository.saveAll(users);
+            userRepository.flush();
+            return saved;
+        });
+    }
+
+    private void reject(UserImportResponse response, ParsedRow parsed, String message) {
+        response.setFailed(response.getFailed() + 1);
+        if (response.getErrors().size() < maxReportedErrors) {
+            response.getErrors().add(new UserImportError(parsed.line, parsed.row != null ? parsed.row.getUsername() : null, message));
+        } else {
+            response.setErrorsTruncated(true);
+        }
+    }
+
+    private ParsedRow parseJson(long line, String json) {
+        try {
+            UserImportRow row = objectMapper.readValue(json, UserImportRow.class);
+            if (row == null) {
+                return new ParsedRow(line, null, "Expected a JSON object");
+            }
+            if (row.getRoles() == null) {
+                row.setRoles(List.of());
+            }
+            return new ParsedRow(line, row, null);
+        } catch (JsonProcessingException ex) {
+            return new ParsedRow(line, null, "Invalid JSON: " + ex.getOriginalMessage());
+        }
+    }
+
+    private static List<String> parseHeader(String line) {
+        List<String> header = splitCsv(line).stream().map(String::trim).collect(Collectors.toList());
+        for (String column : header) {
+            if (!CSV_COLUMNS.contains(column)) {
+                throw new IllegalArgumentException("Unknown CSV column '" + column + "'");
+            }
+        }
+        if (!header.contains("username") || !header.contains("password")) {
+            throw new IllegalArgumentException("CSV header must name the username and password columns");
+        }
+        return header;
+    }
+
+    private static ParsedRow parseCsv(long line, List<String> header, String csv) {
+        List<String> values = splitCsv(csv);
+        if (values.size() != header.size()) {
+            return new ParsedRow(line, null, "Expected " + header.size() + " columns but found " + values.size());
+        }
+        UserImportRow row = new UserImportRow();
+        for (int i = 0; i < header.size(); i++) {
+            String value = values.get(i).isEmpty() ? null : values.get(i);
+            switch (header.get(i)) {
+                case "username" -> row.setUsername(value);
+                case "password" -> row.setPassword(value);
+                case "email" -> row.setEmail(value);
+                case "phone" -> row.setPhone(value);
+                case "status" -> {
+                    if (value != null) {
+                        try {
+                            row.setStatus(Integer.valueOf(value.trim()));
+                        } catch (NumberFormatException ex) {
+                            return new ParsedRow(line, row, "Invalid status '" + value + "'");
+                        }
+                    }
+                }
+                case "roles" -> row.setRoles(value != null
+                        ? Arrays.stream(value.split("\\|")).map(String::trim).filter(name -> !name.isEmpty()).collect(Collectors.toList())
+                        : List.of());
+                default -> throw new IllegalStateException("Unexpected column " + header.get(i));
+            }
+        }
+        return new ParsedRow(line, row, null);
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashExecutor.shutdown();
+    }
+
+    private static final class ParsedRow {
+        private final long line;
+        private final UserImportRow row;
+        private final String error;
+        private final Set<Long> roleIds = new LinkedHashSet<>();
+        private String passwordHash;
+
+        private ParsedRow(long line, UserImportRow row, String error) {
+            this.line = line;
+            this.row = row;
+            this.error = error;
+        }
+    }
+}
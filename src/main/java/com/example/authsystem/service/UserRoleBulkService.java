@@ -0,0 +1,99 @@
+package com.example.authsystem.service;
+
+import com.example.authsystem.dto.BulkRoleRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adds or removes roles for many users with set-based {@code user_roles} statements instead of
+ * loading and saving every user. Explicit user ids are processed in chunks of
+ * {@value #ID_CHUNK_SIZE} to keep {@code IN} lists bounded; a filter is applied in a single
+ * statement. Only users whose roles actually change are reported, so callers can invalidate
+ * exactly those.
+ */
+@Service
+public class UserRoleBulkService {
+
+    private static final int ID_CHUNK_SIZE = 1000;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public Result assignRoles(BulkRoleRequest request) {
+        return apply(request,
+                "SELECT u.id, u.username FROM users u WHERE %s AND EXISTS (SELECT 1 FROM roles r WHERE r.id IN (:roleIds)"
+                        + " AND NOT EXISTS (SELECT 1 FROM user_roles ur WHERE ur.user_id = u.id AND ur.role_id = r.id))",
+                "INSERT INTO user_roles (user_id, role_id) SELECT u.id, r.id FROM users u JOIN roles r ON r.id IN (:roleIds)"
+                        + " WHERE %s AND NOT EXISTS (SELECT 1 FROM user_roles ur WHERE ur.user_id = u.id AND ur.role_id = r.id)");
+    }
+
+    @Transactional
+    public Result removeRoles(BulkRoleRequest request) {
+        return apply(request,
+                "SELECT u.id, u.username FROM users u WHERE %s AND EXISTS"
+                        + " (SELECT 1 FROM user_roles ur WHERE ur.user_id = u.id AND ur.role_id IN (:roleIds))",
+                "DELETE FROM user_roles WHERE role_id IN (:roleIds) AND user_id IN (SELECT u.id FROM users u WHERE %s)");
+    }
+
+    private Result apply(BulkRoleRequest request, String affectedSql, String updateSql) {
+        Result result = new Result();
+        if (request.getUserIds() != null) {
+            List<Long> userIds = request.getUserIds();
+            for (int from = 0; from < userIds.size(); from += ID_CHUNK_SIZE) {
+                MapSqlParameterSource params = new MapSqlParameterSource("roleIds", request.getRoleIds())
+                        .addValue("userIds", userIds.subList(from, Math.min(from + ID_CHUNK_SIZE, userIds.size())));
+                apply(result, affectedSql, updateSql, "u.id IN (:userIds)", params);
+            }
+        } else {
+            MapSqlParameterSource params = new MapSqlParameterSource("roleIds", request.getRoleIds());
+            List<String> conditions = new ArrayList<>();
+            // Case-insensitive like the user list, so a filter checked there selects the same users here
+            if (request.getUsername() != null) {
+                conditions.add("LOWER(u.username) LIKE LOWER(:username)");
+                params.addValue("username", "%" + request.getUsername() + "%");
+            }
+            if (request.getEmail() != null) {
+                conditions.add("LOWER(u.email) LIKE LOWER(:email)");
+                params.addValue("email", "%" + request.getEmail() + "%");
+            }
+            if (request.getStatus() != null) {
+                conditions.add("u.status = :status");
+                params.addValue("status", request.getStatus());
+            }
+            apply(result, affectedSql, updateSql, String.join(" AND ", conditions), params);
+        }
+        return result;
+    }
+
+    private void apply(Result result, String affectedSql, String updateSql, String userCondition, MapSqlParameterSource params) {
+        int before = result.affectedUsers.size();
+        jdbcTemplate.query(String.format(affectedSql, userCondition), params,
+                (RowCallbackHandler) row -> result.affectedUsers.put(row.getLong(1), row.getString(2)));
+        if (result.affectedUsers.size() > before) {
+            result.changedRows += jdbcTemplate.update(String.format(updateSql, userCondition), params);
+        }
+    }
+
+    public static final class Result {
+        private final Map<Long, String> affectedUsers = new LinkedHashMap<>();
+        private int changedRows;
+
+        public Map<Long, String> getAffectedUsers() {
+            return affectedUsers;
+        }
+
+        public int getChangedRows() {
+            return changedRows;
+        }
+    }
+}
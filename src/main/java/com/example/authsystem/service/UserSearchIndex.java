@@ -0,0 +1,255 @@
+package com.example.authsystem.service;
+
+import com.example.authsystem.dto.SearchIndexStatsResponse;
+import com.example.authsystem.event.UserChangedEvent;
+import com.example.authsystem.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Answers the user list's {@code username}/{@code email} substring filters from a
+ * {@link TrigramIndex}, so the list can be fetched by primary key instead of a leading-wildcard
+ * {@code LIKE} scan.
+ * <p>
+ * The index is built when the application is ready and kept current from
+ * {@link UserChangedEvent}. {@link #search} returns {@code null} whenever the index cannot answer
+ * (not built yet, dropped after exceeding {@code search-index.max-memory}, or a filter matching
+ * more than {@code search-index.max-candidates} users) and the caller falls back to SQL. A dropped
+ * index is rebuilt every {@code search-index.retry-interval} until it fits again.
+ */
+@Service
+public class UserSearchIndex {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${search-index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${search-index.max-memory:67108864}")
+    private long maxMemoryBytes;
+
+    @Value("${search-index.max-candidates:10000}")
+    private int maxCandidates;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Serializes writers; readers only take the read lock. Not a monitor, since writers query the
+    // database while holding it and would pin virtual threads.
+    private final Lock writeLock = new ReentrantLock();
+
+    private TrigramIndex index;
+
+    private boolean overBudget;
+
+    // Users changed while a rebuild is running, refreshed once the rebuilt index is installed
+    private Set<Long> pendingUserIds;
+
+    private boolean rebuildRequested;
+
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    /**
+     * Returns the ids of users matching every given filter, or {@code null} if the index cannot
+     * answer and the caller has to query the database.
+     */
+    public Collection<Long> search(String username, String email) {
+        if (username == null && email == null) {
+            return null;
+        }
+        searches.increment();
+        Set<Long> result = null;
+        lock.readLock().lock();
+        try {
+            if (index != null) {
+                result = match(null, TrigramIndex.USERNAME, username);
+                result = match(result, TrigramIndex.EMAIL, email);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (result == null) {
+            fallbacks.increment();
+        }
+        return result;
+    }
+
+    private Set<Long> match(Set<Long> previous, int field, String needle) {
+        if (needle == null) {
+            return previous;
+        }
+        List<Long> ids = index.search(field, needle, maxCandidates);
+        if (ids == null) {
+            return null;
+        }
+        if (previous == null) {
+            return new LinkedHashSet<>(ids);
+        }
+        previous.retainAll(ids);
+        return previous;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            if (pendingUserIds != null) {
+                rebuildRequested = true;
+                return;
+            }
+            pendingUserIds = new HashSet<>();
+        } finally {
+            writeLock.unlock();
+        }
+
+        boolean again;
+        do {
+            TrigramIndex rebuilt = load();
+            writeLock.lock();
+            try {
+                again = rebuildRequested;
+                rebuildRequested = false;
+                if (!again) {
+                    install(rebuilt);
+                    Set<Long> changed = pendingUserIds;
+                    pendingUserIds = null;
+                    if (rebuilt != null) {
+                        refresh(changed);
+                    }
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        } while (again);
+    }
+
+    private TrigramIndex load() {
+        TrigramIndex loaded = new TrigramIndex();
+        long afterId = 0;
+        List<Object[]> batch;
+        do {
+            batch = userRepository.findSearchFieldsAfter(afterId, PageRequest.of(0, BATCH_SIZE));
+            for (Object[] row : batch) {
+                afterId = (Long) row[0];
+                loaded.put(afterId, (String) row[1], (String) row[2]);
+            }
+            if (loaded.estimatedBytes() > maxMemoryBytes) {
+                return null;
+            }
+        } while (batch.size() == BATCH_SIZE);
+        return loaded;
+    }
+
+    @Scheduled(fixedDelayString = "${search-index.retry-interval:600000}",
+            initialDelayString = "${search-index.retry-interval:600000}")
+    public void retryOverBudget() {
+        boolean dropped;
+        lock.readLock().lock();
+        try {
+            dropped = overBudget;
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (dropped) {
+            rebuild();
+        }
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.isAllUsers()) {
+            rebuild();
+            return;
+        }
+        writeLock.lock();
+        try {
+            if (pendingUserIds != null) {
+                pendingUserIds.addAll(event.getUserIds());
+            } else if (index != null) {
+                refresh(event.getUserIds());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void refresh(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(userIds);
+        List<Object[]> rows = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            rows.addAll(userRepository.findSearchFieldsByIds(ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()))));
+        }
+        lock.writeLock().lock();
+        try {
+            userIds.forEach(index::remove);
+            for (Object[] row : rows) {
+                index.put((Long) row[0], (String) row[1], (String) row[2]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (index.estimatedBytes() > maxMemoryBytes) {
+            install(null);
+        } else if (index.needsCompaction()) {
+            install(index.compact());
+        }
+    }
+
+    private void install(TrigramIndex newIndex) {
+        lock.writeLock().lock();
+        try {
+            index = newIndex;
+            overBudget = newIndex == null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public SearchIndexStatsResponse stats() {
+        lock.readLock().lock();
+        try {
+            return new SearchIndexStatsResponse(
+                    enabled,
+                    index != null,
+                    overBudget,
+                    index != null ? index.size() : 0,
+                    index != null ? index.gramCount() : 0,
+                    index != null ? index.estimatedBytes() : 0,
+                    maxMemoryBytes,
+                    searches.sum(),
+                    fallbacks.sum()
+            );
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -15,6 +15,13 @@ CREATE TABLE IF NOT EXISTS users (
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
 );
 
+-- User id sequence (MySQL has no sequences; Hibernate emulates users_seq with this table and
+-- allocates ids 50 at a time, so the start value leaves room for the rows inserted below)
+CREATE TABLE IF NOT EXISTS users_seq (
+    next_val BIGINT
+);
+INSERT INTO users_seq (next_val) SELECT 101 WHERE NOT EXISTS (SELECT 1 FROM users_seq);
+
 -- Roles table
 CREATE TABLE IF NOT EXISTS roles (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
@@ -63,6 +70,40 @@ CREATE TABLE IF NOT EXISTS role_menus (
     FOREIGN KEY (menu_id) REFERENCES menus(id) ON DELETE CASCADE
 );
 
+-- Revoked tokens (jti) and revoked users (subject); rows are purged once expires_at passes
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    jti VARCHAR(64) UNIQUE,
+    subject VARCHAR(50),
+    revoked_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    INDEX idx_revoked_tokens_subject (subject),
+    INDEX idx_revoked_tokens_expires_at (expires_at)
+);
+
+-- Audit trail, written in batches by the audit writer
+CREATE TABLE IF NOT EXISTS audit_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    type VARCHAR(32) NOT NULL,
+    actor VARCHAR(50),
+    target VARCHAR(100),
+    detail VARCHAR(500),
+    client_ip VARCHAR(45),
+    occurred_at TIMESTAMP NOT NULL,
+    INDEX idx_audit_events_occurred_at (occurred_at),
+    INDEX idx_audit_events_target (target)
+);
+
+-- Cache invalidations shared between instances, polled by every node in id order
+CREATE TABLE IF NOT EXISTS change_log (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    origin VARCHAR(36) NOT NULL,
+    kind VARCHAR(16) NOT NULL,
+    payload VARCHAR(4000),
+    created_at TIMESTAMP NOT NULL,
+    INDEX idx_change_log_created_at (created_at)
+);
+
 -- Insert default admin user (password: admin123)
 INSERT INTO users (username, password, email, status) VALUES 
 ('admin', '$2a$10$EixZaYVK1fsbw1ZfbX3OXePaWxn96p36WQoeG6Lruj3vjPGga31lW', 'admin@example.com', 1),
@@ -0,0 +1,120 @@
+package com.example.authsystem.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuditRingBufferTest {
+
+    @Test
+    void roundsCapacityUpToPowerOfTwo() {
+        assertThat(new AuditRingBuffer<>(2).capacity()).isEqualTo(2);
+        assertThat(new AuditRingBuffer<>(4).capacity()).isEqualTo(4);
+        assertThat(new AuditRingBuffer<>(5).capacity()).isEqualTo(8);
+        assertThatThrownBy(() -> new AuditRingBuffer<>(1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void emptyBufferDrainsNothing() {
+        AuditRingBuffer<String> buffer = new AuditRingBuffer<>(4);
+        List<String> drained = new ArrayList<>();
+
+        assertThat(buffer.drainTo(drained, 10)).isZero();
+        assertThat(drained).isEmpty();
+        assertThat(buffer.peek()).isNull();
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void fullBufferRejectsOffersUntilDrained() {
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+
+        assertThat(buffer.offer(4)).isFalse();
+        assertThat(buffer.size()).isEqualTo(4);
+        assertThat(buffer.peek()).isEqualTo(0);
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(buffer.drainTo(drained, 1)).isEqualTo(1);
+        assertThat(buffer.offer(4)).isTrue();
+        assertThat(buffer.offer(5)).isFalse();
+
+        assertThat(buffer.drainTo(drained, 10)).isEqualTo(4);
+        assertThat(drained).containsExactly(0, 1, 2, 3, 4);
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void keepsOrderAcrossManyLaps() {
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(4);
+        List<Integer> drained = new ArrayList<>();
+        int next = 0;
+        for (int lap = 0; lap < 100; lap++) {
+            // Uneven batches so head and tail wrap at different slots
+            for (int i = 0; i < 1 + lap % 4 && buffer.size() < buffer.capacity(); i++) {
+                assertThat(buffer.offer(next++)).isTrue();
+            }
+            buffer.drainTo(drained, 1 + lap % 3);
+        }
+        buffer.drainTo(drained, Integer.MAX_VALUE);
+
+        assertThat(next).isGreaterThan(100);
+        assertThat(drained).hasSize(next);
+        for (int i = 0; i < next; i++) {
+            assertThat(drained.get(i)).isEqualTo(i);
+        }
+    }
+
+    @Test
+    void deliversEveryAcceptedElementOnceUnderConcurrentProducers() throws Exception {
+        int producers = 4;
+        int perProducer = 20000;
+        AuditRingBuffer<long[]> buffer = new AuditRingBuffer<>(64);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            executor.execute(() -> {
+                for (long i = 0; i < perProducer; ) {
+                    if (buffer.offer(new long[]{producer, i})) {
+                        i++;
+                    } else {
+                        Thread.yield();
+                    }
+                }
+            });
+        }
+
+        long[] nextExpected = new long[producers];
+        List<long[]> batch = new ArrayList<>();
+        int received = 0;
+        int outOfOrder = 0;
+        while (received < producers * perProducer) {
+            batch.clear();
+            if (buffer.drainTo(batch, 128) == 0) {
+                Thread.yield();
+                continue;
+            }
+            received += batch.size();
+            for (long[] element : batch) {
+                // Each producer's elements arrive in the order it offered them
+                if (element[1] != nextExpected[(int) element[0]]++) {
+                    outOfOrder++;
+                }
+            }
+        }
+        assertThat(outOfOrder).isZero();
+        assertThat(nextExpected).containsOnly(perProducer);
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(buffer.drainTo(batch, 1)).isZero();
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.authsystem.datasource;
+
+import com.example.authsystem.AuthSystemApplication;
+import com.example.authsystem.entity.User;
+import com.example.authsystem.repository.UserRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Routing against a second H2 database standing in for a replica, seeded from {@code init-db.sql}
+ * while the primary starts empty. A user that is enabled on the replica but disabled on the
+ * primary, as if the replica lagged behind, shows where each read went.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private static final String PRIMARY_URL = "jdbc:h2:mem:primary-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    private static final String REPLICA_URL = replicaUrl();
+
+    private static ConfigurableApplicationContext context;
+
+    @BeforeAll
+    static void startWithLaggingReplica() throws Exception {
+        seed(REPLICA_URL);
+        context = start(PRIMARY_URL, REPLICA_URL);
+        User admin = new User("admin", "secret", "admin@example.com");
+        admin.setStatus(0);
+        context.getBean(UserRepository.class).save(admin);
+    }
+
+    private static ConfigurableApplicationContext start(String primaryUrl, String replicaUrl) {
+        return new SpringApplicationBuilder(AuthSystemApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + primaryUrl,
+                "--spring.jpa.show-sql=false",
+                "--datasource-routing.enabled=true",
+                "--datasource-routing.replica-urls=" + replicaUrl,
+                "--datasource-guard.enabled=true");
+    }
+
+    // init-db.sql is written for MySQL; H2 runs it in MySQL mode once the database selection is dropped
+    private static String replicaUrl() {
+        return "jdbc:h2:mem:replica-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;MODE=MySQL";
+    }
+
+    private static void seed(String url) throws Exception {
+        String script = new ClassPathResource("init-db.sql").getContentAsString(StandardCharsets.UTF_8);
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            for (String sql : script.replaceAll("(?m)^--.*$", "").split(";")) {
+                sql = sql.trim();
+                if (!sql.isEmpty() && !sql.startsWith("CREATE DATABASE") && !sql.startsWith("USE ")) {
+                    statement.execute(sql);
+                }
+            }
+        }
+    }
+
+    @AfterAll
+    static void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    void readOnlyTransactionsReadTheReplica() {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        TransactionTemplate readOnly = new TransactionTemplate(context.getBean(TransactionTemplate.class).getTransactionManager());
+        readOnly.setReadOnly(true);
+
+        Integer replicaStatus = readOnly.execute(status -> userRepository.findByUsername("admin").orElseThrow().getStatus());
+        assertThat(replicaStatus).isEqualTo(1);
+        assertThat(userRepository.findByUsername("admin").orElseThrow().getStatus()).isEqualTo(0);
+
+        ReadWriteRoutingDataSource routing = unwrap(ReadWriteRoutingDataSource.class);
+        assertThat(routing.getReplicas().get(0).getBorrowed()).isPositive();
+    }
+
+    @Test
+    void userLookupForAuthenticationStaysOnThePrimary() {
+        // The replica still has the account enabled; authentication, and the cache behind it, must not
+        assertThatThrownBy(() -> context.getBean(UserDetailsService.class).loadUserByUsername("admin"))
+                .isInstanceOf(UsernameNotFoundException.class);
+    }
+
+    @Test
+    void guardAndPoolMetricsFindThePrimaryBehindTheRouting() {
+        assertThat(unwrap(GuardedDataSource.class).getMaxPermits()).isEqualTo(10);
+        assertThat(unwrap(HikariDataSource.class).getPoolName()).doesNotStartWith("replica-");
+    }
+
+    @Test
+    void replicaPoolIsClosedWithTheApplication() throws Exception {
+        String replicaUrl = replicaUrl();
+        seed(replicaUrl);
+        ConfigurableApplicationContext other = start("jdbc:h2:mem:primary-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", replicaUrl);
+        try {
+            TransactionTemplate readOnly = new TransactionTemplate(other.getBean(TransactionTemplate.class).getTransactionManager());
+            readOnly.setReadOnly(true);
+            readOnly.executeWithoutResult(status -> other.getBean(JdbcTemplate.class).queryForObject("SELECT 1", Integer.class));
+            assertThat(sessions(replicaUrl)).isGreaterThan(1);
+        } finally {
+            other.close();
+        }
+        // Only the session of this check is left
+        assertThat(sessions(replicaUrl)).isEqualTo(1);
+    }
+
+    private static int sessions(String url) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS")) {
+            rows.next();
+            return rows.getInt(1);
+        }
+    }
+
+    private static <T> T unwrap(Class<T> type) {
+        try {
+            return context.getBean(DataSource.class).unwrap(type);
+        } catch (SQLException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
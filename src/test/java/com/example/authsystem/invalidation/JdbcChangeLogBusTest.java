@@ -0,0 +1,175 @@
+package com.example.authsystem.invalidation;
+
+import com.example.authsystem.AuthSystemApplication;
+import com.example.authsystem.dto.UserResponse;
+import com.example.authsystem.entity.Role;
+import com.example.authsystem.entity.User;
+import com.example.authsystem.event.RbacChangedEvent;
+import com.example.authsystem.event.UserChangedEvent;
+import com.example.authsystem.repository.RoleRepository;
+import com.example.authsystem.repository.UserRepository;
+import com.example.authsystem.security.StatelessAuthorizationResolver;
+import com.example.authsystem.security.TokenRevocationStore;
+import com.example.authsystem.security.UserDetailsCache;
+import com.example.authsystem.service.EntityVersions;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Two instances of the application on one shared database: writes on one must reach the caches of
+ * the other through {@code change_log}.
+ */
+class JdbcChangeLogBusTest {
+
+    private static ConfigurableApplicationContext writer;
+    private static ConfigurableApplicationContext reader;
+
+    @BeforeAll
+    static void startInstances() {
+        String url = "jdbc:h2:mem:change-log-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        // The writer creates the schema; the reader starts on it like a second node would
+        writer = start(url, "create-drop");
+        reader = start(url, "none");
+    }
+
+    private static ConfigurableApplicationContext start(String url, String ddlAuto) {
+        return new SpringApplicationBuilder(AuthSystemApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + url,
+                "--spring.jpa.hibernate.ddl-auto=" + ddlAuto,
+                "--spring.jpa.show-sql=false",
+                "--invalidation.bus=jdbc",
+                "--invalidation.poll-interval=50",
+                "--jwt.stateless-authorization.enabled=true");
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        if (reader != null) {
+            reader.close();
+        }
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    @Test
+    void userWriteInvalidatesTheOtherInstance() {
+        User user = writer.getBean(UserRepository.class).save(new User("alice", "secret", "alice@example.com"));
+
+        UserDetailsCache userDetailsCache = reader.getBean(UserDetailsCache.class);
+        UserDetails cached = reader.getBean(UserDetailsService.class).loadUserByUsername("alice");
+        userDetailsCache.putUserInCache(cached);
+
+        EntityVersions entityVersions = reader.getBean(EntityVersions.class);
+        entityVersions.eTag(entityVersions.user(user.getId()), new UserResponse(user));
+        assertThat(entityVersions.knownETag(entityVersions.user(user.getId()))).isNotNull();
+
+        StatelessAuthorizationResolver resolver = reader.getBean(StatelessAuthorizationResolver.class);
+        Claims claims = Jwts.claims(resolver.buildClaims(cached))
+                .setSubject("alice")
+                .setIssuedAt(new Date());
+        assertThat(resolver.resolve(claims)).isNotNull();
+
+        user.setStatus(0);
+        writer.getBean(UserRepository.class).save(user);
+        writer.publishEvent(UserChangedEvent.of(user.getId(), user.getUsername()));
+
+        // Listeners run one after another on the poller thread; each is awaited on its own
+        await(() -> userDetailsCache.getUserFromCache("alice") == null);
+        await(() -> entityVersions.knownETag(entityVersions.user(user.getId())) == null);
+        await(() -> resolver.resolve(claims) == null);
+        assertThatThrownBy(() -> reader.getBean(UserDetailsService.class).loadUserByUsername("alice"))
+                .isInstanceOf(UsernameNotFoundException.class);
+    }
+
+    @Test
+    void roleWriteEvictsTheOtherInstancesSecondLevelCache() {
+        Role role = writer.getBean(RoleRepository.class).save(new Role("AUDITOR", "Reads the audit log"));
+
+        EntityManagerFactory readerEntityManagerFactory = reader.getBean(EntityManagerFactory.class);
+        assertThat(reader.getBean(RoleRepository.class).findById(role.getId())).isPresent();
+        assertThat(readerEntityManagerFactory.getCache().contains(Role.class, role.getId())).isTrue();
+
+        role.setDescription("Reads and exports the audit log");
+        writer.getBean(RoleRepository.class).save(role);
+        writer.publishEvent(RbacChangedEvent.ofRole(role.getId()));
+
+        await(() -> !readerEntityManagerFactory.getCache().contains(Role.class, role.getId()));
+        assertThat(reader.getBean(RoleRepository.class).findById(role.getId()))
+                .hasValueSatisfying(reloaded -> assertThat(reloaded.getDescription()).isEqualTo("Reads and exports the audit log"));
+    }
+
+    @Test
+    void tokenRevocationReachesTheOtherInstance() {
+        TokenRevocationStore readerStore = reader.getBean(TokenRevocationStore.class);
+        Claims claims = Jwts.claims()
+                .setId(UUID.randomUUID().toString())
+                .setSubject("admin")
+                .setIssuedAt(new Date());
+        assertThat(readerStore.isRevoked(claims)).isFalse();
+
+        writer.getBean(TokenRevocationStore.class).revokeToken(claims.getId(), new Date(System.currentTimeMillis() + 60000));
+
+        await(() -> readerStore.isRevoked(claims));
+    }
+
+    @Test
+    void changeCommittedAfterALaterOneIsStillApplied() {
+        UserDetailsCache userDetailsCache = reader.getBean(UserDetailsCache.class);
+        userDetailsCache.putUserInCache(cachedUser("bob"));
+        userDetailsCache.putUserInCache(cachedUser("carol"));
+        InvalidationBus readerBus = reader.getBean(InvalidationBus.class);
+
+        // bob's change takes the lower id but commits only after carol's has been applied
+        writer.getBean(TransactionTemplate.class).executeWithoutResult(status -> {
+            writer.publishEvent(UserChangedEvent.of(1001L, "bob"));
+            CompletableFuture.runAsync(() -> writer.publishEvent(UserChangedEvent.of(1002L, "carol"))).join();
+
+            await(() -> userDetailsCache.getUserFromCache("carol") == null);
+            await(() -> readerBus.stats().getPendingGapCount() > 0);
+            assertThat(userDetailsCache.getUserFromCache("bob")).isNotNull();
+        });
+
+        await(() -> userDetailsCache.getUserFromCache("bob") == null);
+        await(() -> readerBus.stats().getPendingGapCount() == 0);
+    }
+
+    private static UserDetails cachedUser(String username) {
+        return org.springframework.security.core.userdetails.User.withUsername(username)
+                .password("")
+                .roles("USER")
+                .build();
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met within 5s").isLessThan(deadline);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+}
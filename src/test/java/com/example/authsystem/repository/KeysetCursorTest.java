@@ -0,0 +1,89 @@
+package com.example.authsystem.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    private final KeysetCursor cursor = new KeysetCursor(Map.of(
+            "id", Long::valueOf,
+            "username", value -> value,
+            "status", Integer::valueOf));
+
+    @Test
+    void roundTripsIdCursor() {
+        String encoded = cursor.encode(ScrollPosition.forward(Map.of("id", 42L)), "id", Sort.Direction.ASC);
+
+        KeysetScrollPosition position = cursor.decode(encoded, "id", Sort.Direction.ASC);
+
+        assertThat(position.getKeys()).containsExactly(Map.entry("id", 42L));
+        assertThat(position.scrollsForward()).isTrue();
+    }
+
+    @Test
+    void roundTripsColumnCursorWithTieBreaker() {
+        String encoded = cursor.encode(position("status", 1, 7L), "status", Sort.Direction.DESC);
+
+        KeysetScrollPosition position = cursor.decode(encoded, "status", Sort.Direction.DESC);
+
+        assertThat(position.getKeys()).containsExactly(Map.entry("status", 1), Map.entry("id", 7L));
+    }
+
+    @Test
+    void keepsSeparatorInsideValue() {
+        String encoded = cursor.encode(position("username", "a|b|c", 3L), "username", Sort.Direction.ASC);
+
+        assertThat(cursor.decode(encoded, "username", Sort.Direction.ASC).getKeys())
+                .containsEntry("username", "a|b|c")
+                .containsEntry("id", 3L);
+    }
+
+    @Test
+    void emptyCursorStartsAtFirstRow() {
+        assertThat(cursor.decode(null, "id", Sort.Direction.ASC).isInitial()).isTrue();
+        assertThat(cursor.decode("", "id", Sort.Direction.ASC).isInitial()).isTrue();
+    }
+
+    @Test
+    void rejectsCursorForAnotherOrdering() {
+        String encoded = cursor.encode(position("username", "bob", 3L), "username", Sort.Direction.ASC);
+
+        assertThatThrownBy(() -> cursor.decode(encoded, "status", Sort.Direction.ASC))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> cursor.decode(encoded, "username", Sort.Direction.DESC))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsTamperedCursors() {
+        assertThatThrownBy(() -> cursor.decode("not base64!", "id", Sort.Direction.ASC))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> cursor.decode(raw("id|ASC|1"), "id", Sort.Direction.ASC))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> cursor.decode(raw("id|ASC|x|"), "id", Sort.Direction.ASC))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> cursor.decode(raw("status|ASC|1|active"), "status", Sort.Direction.ASC))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ScrollPosition position(String column, Object value, long id) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put(column, value);
+        keys.put("id", id);
+        return ScrollPosition.forward(keys);
+    }
+
+    private static String raw(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.authsystem.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void neverMissesAnAddedKey() {
+        BloomFilter filter = new BloomFilter(10000, 0.01);
+        String[] keys = IntStream.range(0, 20000).mapToObj(i -> "j:" + UUID.randomUUID()).toArray(String[]::new);
+
+        for (String key : keys) {
+            filter.add(key);
+        }
+
+        // Twice the expected entries: accuracy degrades, membership must not
+        for (String key : keys) {
+            assertThat(filter.mightContain(key)).as(key).isTrue();
+        }
+    }
+
+    @Test
+    void neverMissesKeysAddedConcurrently() {
+        BloomFilter filter = new BloomFilter(50000, 0.01);
+
+        IntStream.range(0, 50000).parallel().forEach(i -> filter.add("s:user" + i));
+
+        assertThat(IntStream.range(0, 50000).filter(i -> !filter.mightContain("s:user" + i))).isEmpty();
+    }
+
+    @Test
+    void keepsFalsePositivesNearTheConfiguredRate() {
+        BloomFilter filter = new BloomFilter(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            filter.add("j:added-" + i);
+        }
+
+        long falsePositives = IntStream.range(0, 100000).filter(i -> filter.mightContain("j:absent-" + i)).count();
+
+        assertThat(falsePositives).isLessThan(2000);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.authsystem.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginThrottleTest {
+
+    // 60 per minute: one token per second
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long START = 1_000_000 * SECOND;
+
+    @Test
+    void allowsBurstThenAsksToWaitForOneToken() {
+        LoginThrottle throttle = throttle(3, 60, 100, 100, 1000);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(throttle.tryAcquire("10.0.0.1", "user" + i, START)).isZero();
+        }
+
+        assertThat(throttle.tryAcquire("10.0.0.1", "other", START)).isEqualTo(1001);
+        assertThat(throttle.tryAcquire("10.0.0.1", "other", START + SECOND / 2)).isEqualTo(501);
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() {
+        LoginThrottle throttle = throttle(3, 60, 100, 100, 1000);
+        for (int i = 0; i < 3; i++) {
+            throttle.tryAcquire("10.0.0.1", "user", START);
+        }
+
+        assertThat(throttle.tryAcquire("10.0.0.1", "user", START + SECOND)).isZero();
+        assertThat(throttle.tryAcquire("10.0.0.1", "user", START + SECOND)).isPositive();
+
+        // Refilled completely after burst * interval, and no further
+        long later = START + 10 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertThat(throttle.tryAcquire("10.0.0.1", "user", later)).isZero();
+        }
+        assertThat(throttle.tryAcquire("10.0.0.1", "user", later)).isPositive();
+    }
+
+    @Test
+    void separatesClientIpsAndSharesCaseVariantsOfUsername() {
+        LoginThrottle throttle = throttle(100, 60, 2, 60, 1000);
+
+        assertThat(throttle.tryAcquire("10.0.0.1", "Alice", START)).isZero();
+        assertThat(throttle.tryAcquire("10.0.0.2", "alice", START)).isZero();
+        assertThat(throttle.tryAcquire("10.0.0.3", "ALICE", START)).isPositive();
+        assertThat(throttle.tryAcquire("10.0.0.3", "bob", START)).isZero();
+    }
+
+    @Test
+    void successfulLoginRefillsTheUsernameBucket() {
+        LoginThrottle throttle = throttle(100, 60, 1, 1, 1000);
+        throttle.tryAcquire("10.0.0.1", "alice", START);
+        assertThat(throttle.tryAcquire("10.0.0.1", "alice", START)).isPositive();
+
+        throttle.onSuccess("Alice");
+
+        assertThat(throttle.tryAcquire("10.0.0.1", "alice", START)).isZero();
+    }
+
+    @Test
+    void caseVariantsShareABucketWhateverTheDefaultLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        // Lower-cases "I" to a dotless "ı"
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            LoginThrottle throttle = throttle(100, 60, 1, 1, 1000);
+            throttle.tryAcquire("10.0.0.1", "ADMIN", START);
+            assertThat(throttle.tryAcquire("10.0.0.2", "admin", START)).isPositive();
+
+            throttle.onSuccess("ADMIN");
+
+            assertThat(throttle.tryAcquire("10.0.0.2", "admin", START)).isZero();
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    void evictsOnlyFullBuckets() {
+        LoginThrottle throttle = throttle(3, 60, 3, 60, 1000);
+        throttle.tryAcquire("10.0.0.1", "alice", START);
+        throttle.tryAcquire("10.0.0.2", "bob", START + 5 * SECOND);
+
+        throttle.evictIdle(START + 5 * SECOND + SECOND / 2);
+
+        assertThat(throttle.getIpBucketCount()).isEqualTo(1);
+        assertThat(throttle.getUsernameBucketCount()).isEqualTo(1);
+    }
+
+    @Test
+    void sharesOverflowBucketsBeyondMaxBuckets() {
+        LoginThrottle throttle = throttle(1, 60, 100, 100, 2);
+        throttle.tryAcquire("10.0.0.1", "user", START);
+        throttle.tryAcquire("10.0.0.2", "user", START);
+
+        // Every further IP lands in one of the overflow stripes, which are still throttled
+        long rejected = 0;
+        for (int i = 3; i < 3000; i++) {
+            if (throttle.tryAcquire("10.0.1." + i, "user" + i, START) > 0) {
+                rejected++;
+            }
+        }
+
+        assertThat(throttle.getIpBucketCount()).isLessThanOrEqualTo(2 + 1024);
+        assertThat(rejected).isPositive();
+    }
+
+    private static LoginThrottle throttle(int ipBurst, int ipPerMinute, int usernameBurst, int usernamePerMinute,
+                                          int maxBuckets) {
+        LoginThrottle throttle = new LoginThrottle(ipBurst, ipPerMinute, usernameBurst, usernamePerMinute, maxBuckets);
+        ReflectionTestUtils.setField(throttle, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(throttle, "enabled", true);
+        throttle.init();
+        return throttle;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.authsystem.security;
+
+import com.example.authsystem.event.TokenRevokedEvent;
+import com.example.authsystem.repository.RevokedTokenRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationStoreTest {
+
+    private final RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private TokenRevocationStore store;
+
+    @BeforeEach
+    void setUp() {
+        when(repository.findActiveKeys(any())).thenReturn(List.of());
+        store = new TokenRevocationStore(900000, 604800000);
+        ReflectionTestUtils.setField(store, "revokedTokenRepository", repository);
+        ReflectionTestUtils.setField(store, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(store, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(store, "expectedEntries", 1000L);
+        ReflectionTestUtils.setField(store, "falsePositiveRate", 0.01);
+        store.init();
+    }
+
+    @Test
+    void unknownTokenIsAnsweredWithoutTheDatabase() {
+        assertThat(store.isRevoked(claims("jti-1", "alice", new Date()))).isFalse();
+
+        verify(repository, never()).existsByJti(any());
+        verify(repository, never()).findLatestRevocationOfSubject(any());
+    }
+
+    @Test
+    void revocationIsPublishedForOtherInstances() {
+        store.revokeToken("jti-1", new Date(System.currentTimeMillis() + 60000));
+
+        verify(eventPublisher).publishEvent(any(TokenRevokedEvent.class));
+    }
+
+    @Test
+    void appliesTokenRevocationReplayedFromAnotherInstance() {
+        when(repository.existsByJti("jti-1")).thenReturn(true);
+
+        store.onTokenRevoked(TokenRevokedEvent.ofToken("jti-1", System.currentTimeMillis()));
+
+        assertThat(store.isRevoked(claims("jti-1", "alice", new Date()))).isTrue();
+    }
+
+    @Test
+    void appliesSubjectRevocationReplayedFromAnotherInstance() {
+        long revokedAt = System.currentTimeMillis();
+
+        store.onTokenRevoked(TokenRevokedEvent.ofSubject("alice", revokedAt));
+
+        assertThat(store.isRevoked(claims("jti-1", "alice", new Date(revokedAt - 5000)))).isTrue();
+        assertThat(store.isRevoked(claims("jti-2", "alice", new Date(revokedAt + 5000)))).isFalse();
+        verify(repository, never()).findLatestRevocationOfSubject(any());
+    }
+
+    @Test
+    void cachesUnconfirmedJtiUntilItIsRevoked() {
+        store.onTokenRevoked(TokenRevokedEvent.ofToken("jti-1", System.currentTimeMillis()));
+        when(repository.existsByJti("jti-1")).thenReturn(false);
+
+        assertThat(store.isRevoked(claims("jti-1", "alice", new Date()))).isFalse();
+        assertThat(store.isRevoked(claims("jti-1", "alice", new Date()))).isFalse();
+        verify(repository, times(1)).existsByJti("jti-1");
+
+        when(repository.existsByJti("jti-1")).thenReturn(true);
+        store.onTokenRevoked(TokenRevokedEvent.ofToken("jti-1", System.currentTimeMillis()));
+
+        assertThat(store.isRevoked(claims("jti-1", "alice", new Date()))).isTrue();
+    }
+
+    @Test
+    void reloadsEverythingOnAllEvent() {
+        when(repository.findActiveKeys(any())).thenReturn(List.<Object[]>of(new Object[]{"jti-9", null}));
+        when(repository.existsByJti("jti-9")).thenReturn(true);
+
+        store.onTokenRevoked(TokenRevokedEvent.all());
+
+        assertThat(store.isRevoked(claims("jti-9", "bob", new Date()))).isTrue();
+    }
+
+    private static Claims claims(String jti, String subject, Date issuedAt) {
+        // iat has second precision in real tokens
+        return Jwts.claims().setId(jti).setSubject(subject).setIssuedAt(new Date(issuedAt.getTime() / 1000 * 1000));
+    }
+}
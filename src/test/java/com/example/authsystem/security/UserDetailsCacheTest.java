@@ -0,0 +1,60 @@
+package com.example.authsystem.security;
+
+import com.example.authsystem.event.RbacChangedEvent;
+import com.example.authsystem.event.UserChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserDetailsCacheTest {
+
+    private final UserDetailsCache cache = new UserDetailsCache(100, 300000);
+
+    @Test
+    void cachesUserLoadedWithoutInterveningInvalidation() {
+        long generation = cache.generation();
+
+        cache.putUserInCache(user("alice"), generation);
+
+        assertThat(cache.getUserFromCache("alice")).isNotNull();
+    }
+
+    @Test
+    void skipsUserLoadedBeforeItWasChanged() {
+        long generation = cache.generation();
+        UserDetails loaded = user("alice");
+        // The role change commits and is announced while the load is in flight
+        cache.onUserChanged(UserChangedEvent.of(1L, "alice"));
+
+        cache.putUserInCache(loaded, generation);
+
+        assertThat(cache.getUserFromCache("alice")).isNull();
+    }
+
+    @Test
+    void skipsUserLoadedBeforeRolesChanged() {
+        long generation = cache.generation();
+        UserDetails loaded = user("alice");
+        cache.onRbacChanged(RbacChangedEvent.ofRole(1L));
+
+        cache.putUserInCache(loaded, generation);
+
+        assertThat(cache.getUserFromCache("alice")).isNull();
+    }
+
+    @Test
+    void laterLoadIsCachedAgain() {
+        cache.onUserChanged(UserChangedEvent.of(1L, "alice"));
+        long generation = cache.generation();
+
+        cache.putUserInCache(user("alice"), generation);
+
+        assertThat(cache.getUserFromCache("alice")).isNotNull();
+    }
+
+    private static UserDetails user(String username) {
+        return User.withUsername(username).password("").roles("ADMIN").build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.authsystem.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    private static final String ALPHABET = "abcABC.@1";
+
+    @Test
+    void matchesCaseInsensitiveLike() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "Alice", "Alice@Example.com");
+        index.put(2, "bob", "bob@example.org");
+        index.put(3, "ALICIA", null);
+
+        assertThat(index.search(TrigramIndex.USERNAME, "ali", 10)).containsExactly(1L, 3L);
+        assertThat(index.search(TrigramIndex.USERNAME, "LiC", 10)).containsExactly(1L, 3L);
+        assertThat(index.search(TrigramIndex.USERNAME, "A", 10)).containsExactly(1L, 3L);
+        assertThat(index.search(TrigramIndex.EMAIL, "EXAMPLE", 10)).containsExactly(1L, 2L);
+        assertThat(index.search(TrigramIndex.EMAIL, "xyz", 10)).isEmpty();
+    }
+
+    @Test
+    void agreesWithLikeAcrossUpdatesAndCompaction() {
+        Random random = new Random(42);
+        TrigramIndex index = new TrigramIndex();
+        Map<Long, String[]> users = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            long id = random.nextInt(1500) + 1;
+            if (random.nextInt(5) == 0) {
+                index.remove(id);
+                users.remove(id);
+            } else {
+                String username = randomText(random, 4 + random.nextInt(8));
+                String email = random.nextInt(10) == 0 ? null : randomText(random, 6 + random.nextInt(10));
+                index.put(id, username, email);
+                users.put(id, new String[]{username, email});
+            }
+        }
+        assertThat(index.size()).isEqualTo(users.size());
+        assertAgrees(index, users, random);
+
+        TrigramIndex compacted = index.compact();
+        assertThat(compacted.size()).isEqualTo(users.size());
+        assertAgrees(compacted, users, random);
+    }
+
+    @Test
+    void returnsNullBeyondLimit() {
+        TrigramIndex index = new TrigramIndex();
+        for (long id = 1; id <= 5; id++) {
+            index.put(id, "user" + id, "user" + id + "@example.com");
+        }
+
+        assertThat(index.search(TrigramIndex.USERNAME, "user", 4)).isNull();
+        assertThat(index.search(TrigramIndex.USERNAME, "u", 4)).isNull();
+        assertThat(index.search(TrigramIndex.USERNAME, "user", 5)).hasSize(5);
+    }
+
+    private static void assertAgrees(TrigramIndex index, Map<Long, String[]> users, Random random) {
+        for (int i = 0; i < 500; i++) {
+            int field = random.nextInt(2);
+            String needle = randomText(random, 1 + random.nextInt(4));
+            assertThat(index.search(field, needle, Integer.MAX_VALUE))
+                    .as("field %d, needle '%s'", field, needle)
+                    .containsExactlyInAnyOrderElementsOf(like(users, field, needle));
+        }
+    }
+
+    private static List<Long> like(Map<Long, String[]> users, int field, String needle) {
+        List<Long> result = new ArrayList<>();
+        users.forEach((id, values) -> {
+            String value = values[field];
+            if (value != null && value.toLowerCase(Locale.ROOT).contains(needle.toLowerCase(Locale.ROOT))) {
+                result.add(id);
+            }
+        });
+        return result;
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.authsystem.service;
+
+import com.example.authsystem.AuthSystemApplication;
+import com.example.authsystem.dto.BulkRoleRequest;
+import com.example.authsystem.entity.Role;
+import com.example.authsystem.entity.User;
+import com.example.authsystem.repository.RoleRepository;
+import com.example.authsystem.repository.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The bulk role filters must select exactly the users the user list shows for the same filters.
+ */
+class UserRoleBulkServiceTest {
+
+    private static ConfigurableApplicationContext context;
+    private static Long roleId;
+
+    @BeforeAll
+    static void start() {
+        context = new SpringApplicationBuilder(AuthSystemApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:bulk-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false");
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        userRepository.save(new User("Alice.Admin", "secret", "Alice@Example.com"));
+        userRepository.save(new User("alice2", "secret", "ALICE2@corp.test"));
+        userRepository.save(new User("bob", "secret", "bob@example.com"));
+        roleId = context.getBean(RoleRepository.class).save(new Role("BULK_TEST", "Bulk test role")).getId();
+    }
+
+    @AfterAll
+    static void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    void mixedCaseUsernameFilterMatchesTheUserList() {
+        BulkRoleRequest request = request();
+        request.setUsername("aLiCe");
+
+        assertSameUsersAsList(request, List.of("Alice.Admin", "alice2"));
+    }
+
+    @Test
+    void mixedCaseEmailFilterMatchesTheUserList() {
+        BulkRoleRequest request = request();
+        request.setEmail("EXAMPLE.com");
+
+        assertSameUsersAsList(request, List.of("Alice.Admin", "bob"));
+    }
+
+    private void assertSameUsersAsList(BulkRoleRequest request, List<String> expected) {
+        List<Long> listed = context.getBean(UserRepository.class)
+                .searchByFilters(request.getUsername(), request.getEmail(), request.getStatus(), Pageable.unpaged())
+                .map(User::getId)
+                .getContent();
+        UserRoleBulkService bulkService = context.getBean(UserRoleBulkService.class);
+
+        UserRoleBulkService.Result assigned = bulkService.assignRoles(request);
+        assertThat(assigned.getAffectedUsers().values()).containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(assigned.getAffectedUsers().keySet()).containsExactlyInAnyOrderElementsOf(listed);
+
+        UserRoleBulkService.Result removed = bulkService.removeRoles(request);
+        assertThat(removed.getAffectedUsers().keySet()).containsExactlyInAnyOrderElementsOf(listed);
+    }
+
+    private static BulkRoleRequest request() {
+        BulkRoleRequest request = new BulkRoleRequest();
+        request.setRoleIds(List.of(roleId));
+        return request;
+    }
+}